@@ -0,0 +1,110 @@
+package com.cozy.benchmarks;
+
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.AccountStatus;
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.entity.Profile;
+import com.cozy.account.core.model.entity.Settings;
+import com.cozy.account.core.model.payload.internal.field.*;
+import com.cozy.shared.DateUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fully populated payloads shared by the benchmarks, so that every path under measurement touches all the fields.
+ */
+final class AccountFixtures {
+
+    private AccountFixtures() {
+    }
+
+    static Settings settings() {
+        Settings settings = new Settings();
+        settings.setGlobal(Settings.GlobalSettings.builder()
+                .defaultLanguage("en")
+                .defaultCurrency("EUR")
+                .defaultTimeZone("Europe/Berlin")
+                .build());
+        return settings;
+    }
+
+    static PersonalInformation.GovernmentId governmentId() {
+        return PersonalInformation.GovernmentId.builder()
+                .idFrontSideImage("https://cdn.cozy.com/ids/front/6f1c2a.png")
+                .idBackSideImage("https://cdn.cozy.com/ids/back/6f1c2a.png")
+                .selfieWithIdImage("https://cdn.cozy.com/ids/selfie/6f1c2a.png")
+                .createdAt(DateUtils.now())
+                .status(PersonalInformation.GovernmentIdStatus.PENDING)
+                .build();
+    }
+
+    static Account account() {
+        PersonalInformation personalInformation = PersonalInformation.builder()
+                .id(7L)
+                .email("jane.doe@cozy.com")
+                .legalName(PersonalInformation.LegalName.builder().firstName("Jane").lastName("Doe").build())
+                .phoneNumber(PersonalInformation.PhoneNumber.builder().countryCode("+49").number("15112345678").build())
+                .address(PersonalInformation.Address.builder()
+                        .street("Unter den Linden 1")
+                        .city("Berlin")
+                        .state("Berlin")
+                        .country("DE")
+                        .zipCode("10117")
+                        .build())
+                .emergencyContact(PersonalInformation.EmergencyContact.builder()
+                        .name("John Doe")
+                        .relationship("Brother")
+                        .preferredLanguage("en")
+                        .email("john.doe@cozy.com")
+                        .phoneNumber(PersonalInformation.PhoneNumber.builder().countryCode("+49").number("15187654321").build())
+                        .build())
+                .governmentId(governmentId())
+                .build();
+
+        Profile profile = Profile.builder()
+                .id(11L)
+                .birthDate(LocalDate.of(1990, 5, 17))
+                .profilePictureUrl("https://cdn.cozy.com/profiles/6f1c2a.png")
+                .about("Traveller and occasional host")
+                .showPreviousBookings(true)
+                .isEmailVerified(true)
+                .isPhoneNumberVerified(true)
+                .isGovernmentIdVerified(false)
+                .build();
+
+        return Account.builder()
+                .id(42L)
+                .createdAt(DateUtils.now())
+                .updatedAt(DateUtils.now())
+                .userId("auth0|6f1c2a8e9b7d4c3a2f1e0d9c")
+                .role(Account.Role.GUEST)
+                .status(AccountStatus.ACTIVE)
+                .personalInformation(personalInformation)
+                .profile(profile)
+                .settings(settings())
+                .build();
+    }
+
+    /**
+     * One valid value of every {@link AccountField} type.
+     */
+    static List<AccountField> allFields() {
+        PhoneNumberField phoneNumber = PhoneNumberField.builder().countryCode("+49").number("15112345678").build();
+        return List.of(
+                AboutField.builder().about("Traveller and occasional host").build(),
+                AddressField.builder().street("Unter den Linden 1").city("Berlin").state("Berlin").country("DE").zipCode("10117").build(),
+                BirthDateField.builder().birthDate(LocalDate.of(1990, 5, 17)).build(),
+                EmailField.builder().email("jane.doe@cozy.com").build(),
+                EmergencyContactField.builder().name("John Doe").relationship("Brother").preferredLanguage("en").phoneNumber(phoneNumber).email("john.doe@cozy.com").build(),
+                GovernmentIdField.builder().idFrontSideImage("front.png").idBackSideImage("back.png").selfieWithIdImage("selfie.png").build(),
+                LegalNameField.builder().firstName("Jane").lastName("Doe").build(),
+                phoneNumber,
+                PreferredLanguageField.builder().preferredLanguage("de").build(),
+                PreferredCurrencyField.builder().preferredCurrency("USD").build(),
+                PreferredTimeZoneField.builder().preferredTimeZone("America/New_York").build(),
+                ProfilePictureUrlField.builder().profilePictureUrl("https://cdn.cozy.com/profiles/6f1c2a.png").build(),
+                ShowPastBookingField.builder().showPastBooking(false).build()
+        );
+    }
+}
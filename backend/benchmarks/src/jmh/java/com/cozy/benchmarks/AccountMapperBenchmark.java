@@ -0,0 +1,34 @@
+package com.cozy.benchmarks;
+
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.api.AccountsServiceApi;
+import com.cozy.model.AccountDto;
+import com.cozy.model.AccountProjectionDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping of a fully loaded account into its API representations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountMapperBenchmark {
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        this.account = AccountFixtures.account();
+    }
+
+    @Benchmark
+    public AccountDto map() {
+        return AccountsServiceApi.Mapper.INSTANCE.map(this.account);
+    }
+
+    @Benchmark
+    public AccountProjectionDto mapProjection() {
+        return AccountsServiceApi.Mapper.INSTANCE.mapProjection(this.account);
+    }
+}
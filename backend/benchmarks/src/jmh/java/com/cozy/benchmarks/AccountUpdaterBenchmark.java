@@ -0,0 +1,67 @@
+package com.cozy.benchmarks;
+
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.payload.internal.field.AccountField;
+import com.cozy.account.core.model.util.AccountUpdater;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch and application of a single account patch, per field type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountUpdaterBenchmark {
+
+    @Param({
+            "AboutField",
+            "AddressField",
+            "BirthDateField",
+            "EmailField",
+            "EmergencyContactField",
+            "GovernmentIdField",
+            "LegalNameField",
+            "PhoneNumberField",
+            "PreferredLanguageField",
+            "PreferredCurrencyField",
+            "PreferredTimeZoneField",
+            "ProfilePictureUrlField",
+            "ShowPastBookingField"
+    })
+    public String fieldType;
+
+    private Account account;
+    private AccountField field;
+    private List<AccountField> allFields;
+
+    @Setup
+    public void setUp() {
+        this.account = AccountFixtures.account();
+        this.allFields = AccountFixtures.allFields();
+        this.field = this.allFields.stream()
+                .filter(candidate -> candidate.getClass().getSimpleName().equals(this.fieldType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No fixture for " + this.fieldType));
+    }
+
+    @Benchmark
+    public Account patch() {
+        new AccountUpdater(this.account).patch(this.field);
+        return this.account;
+    }
+
+    /**
+     * All the field types in one request, the way a full profile form is submitted.
+     */
+    @Benchmark
+    public Account patchAllFields() {
+        AccountUpdater updater = new AccountUpdater(this.account);
+        for (AccountField candidate : this.allFields) {
+            updater.patch(candidate);
+        }
+        return this.account;
+    }
+}
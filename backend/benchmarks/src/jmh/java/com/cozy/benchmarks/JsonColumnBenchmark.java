@@ -0,0 +1,58 @@
+package com.cozy.benchmarks;
+
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.entity.Settings;
+import com.cozy.shared.json.JsonCodecs;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round-trips of the jsonb columns, run for every account loaded or flushed. Hibernate goes through the same
+ * {@link JsonCodecs} readers and writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonColumnBenchmark {
+    private final ObjectReader settingsReader = JsonCodecs.reader(JsonCodecs.constructType(Settings.class));
+    private final ObjectWriter settingsWriter = JsonCodecs.writer(JsonCodecs.constructType(Settings.class));
+    private final ObjectReader governmentIdReader = JsonCodecs.reader(JsonCodecs.constructType(PersonalInformation.GovernmentId.class));
+    private final ObjectWriter governmentIdWriter = JsonCodecs.writer(JsonCodecs.constructType(PersonalInformation.GovernmentId.class));
+
+    private Settings settings;
+    private String settingsJson;
+    private PersonalInformation.GovernmentId governmentId;
+    private String governmentIdJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.settings = AccountFixtures.settings();
+        this.settingsJson = this.settingsWriter.writeValueAsString(this.settings);
+        this.governmentId = AccountFixtures.governmentId();
+        this.governmentIdJson = this.governmentIdWriter.writeValueAsString(this.governmentId);
+    }
+
+    @Benchmark
+    public String writeSettings() throws IOException {
+        return this.settingsWriter.writeValueAsString(this.settings);
+    }
+
+    @Benchmark
+    public Settings readSettings() throws IOException {
+        return this.settingsReader.readValue(this.settingsJson);
+    }
+
+    @Benchmark
+    public String writeGovernmentId() throws IOException {
+        return this.governmentIdWriter.writeValueAsString(this.governmentId);
+    }
+
+    @Benchmark
+    public PersonalInformation.GovernmentId readGovernmentId() throws IOException {
+        return this.governmentIdReader.readValue(this.governmentIdJson);
+    }
+}
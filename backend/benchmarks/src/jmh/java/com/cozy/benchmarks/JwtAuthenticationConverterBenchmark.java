@@ -0,0 +1,41 @@
+package com.cozy.benchmarks;
+
+import com.cozy.config.CustomJwtAuthenticationConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of the decoded access token into the authentication, run on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationConverterBenchmark {
+    private final CustomJwtAuthenticationConverter converter = new CustomJwtAuthenticationConverter();
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        Instant issuedAt = Instant.now();
+        this.jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("auth0|6f1c2a8e9b7d4c3a2f1e0d9c")
+                .issuer("https://dntech.eu.auth0.com/")
+                .audience(List.of("https://api.cozy.com"))
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(3600))
+                .claim("permissions", List.of("read:accounts", "write:accounts", "read:listings", "write:listings", "read:bookings"))
+                .claim("https://cozy.com/roles", List.of("guest", "host"))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return this.converter.convert(this.jwt);
+    }
+}
@@ -0,0 +1,39 @@
+package com.cozy.benchmarks;
+
+import com.cozy.account.core.model.payload.internal.field.AccountField;
+import com.cozy.shared.GenericObjectValidator;
+import jakarta.validation.ConstraintViolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of a patch request, by number of fields in the request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ObjectValidatorBenchmark {
+
+    @Param({"1", "13", "100"})
+    public int size;
+
+    private List<AccountField> fields;
+
+    @Setup
+    public void setUp() {
+        List<AccountField> allFields = AccountFixtures.allFields();
+        this.fields = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            this.fields.add(allFields.get(i % allFields.size()));
+        }
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AccountField>> validate() {
+        return GenericObjectValidator.validate(this.fields);
+    }
+}
@@ -1,6 +1,7 @@
 package com.cozy.api;
 
 import com.cozy.account.core.exception.AccountNotFoundException;
+import com.cozy.shared.db.InvalidCursorException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
@@ -17,4 +18,11 @@ public class APIControllerAdvise {
         return problemDetail;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handle(InvalidCursorException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problemDetail.setTitle(e.getClass().getSimpleName());
+        return problemDetail;
+    }
+
 }
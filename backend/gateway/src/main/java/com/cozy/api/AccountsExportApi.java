@@ -0,0 +1,69 @@
+package com.cozy.api;
+
+import com.cozy.core.adapter.AccountService;
+import com.cozy.model.AccountDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the accounts as newline delimited JSON. This endpoint lives outside the generated API since the whole point
+ * is to never build the response body in memory.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class AccountsExportApi {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/accounts/export", produces = APPLICATION_NDJSON_VALUE)
+    public void exportAccounts(HttpServletResponse response) throws IOException {
+        log.info("Exporting all accounts");
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("accounts.ndjson")
+                .build()
+                .toString());
+
+        OutputStream outputStream = response.getOutputStream();
+        // Let the servlet container decide when to flush, flushing on every account would send one chunk per row
+        ObjectWriter writer = this.objectMapper.writerFor(AccountDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator(LINE_SEPARATOR);
+
+        try (SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+            this.accountService.exportAll(account -> {
+                        try {
+                            sequenceWriter.write(AccountsServiceApi.Mapper.INSTANCE.map(account));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .onSuccess(count -> log.info("Exported {} accounts", count))
+                    .onFailure(e -> log.error("Failed exporting accounts. Reason: {}", e.getMessage()))
+                    .onFailure(e -> log.debug("", e))
+                    .get();
+        }
+        outputStream.write(LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+        outputStream.flush();
+    }
+}
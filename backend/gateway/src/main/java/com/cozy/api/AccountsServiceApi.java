@@ -3,10 +3,15 @@ package com.cozy.api;
 import com.cozy.account.core.model.entity.Account;
 import com.cozy.account.core.model.entity.PersonalInformation;
 import com.cozy.account.core.model.entity.Profile;
+import com.cozy.account.core.model.payload.internal.AccountPatchResult;
 import com.cozy.account.core.model.payload.internal.field.*;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
 import com.cozy.core.adapter.AccountService;
 import com.cozy.model.*;
 import com.cozy.shared.api.DateMapper;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import com.cozy.shared.security.SecurityContextUtil;
 import io.vavr.API;
 import io.vavr.control.Try;
@@ -19,7 +24,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -71,6 +78,59 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
                 .get();
     }
 
+    @Override
+    public ResponseEntity<AccountProjectionDto> findAccountProjectionById(Long accountId) {
+        log.info("Fetching projection of account with id: {}", accountId);
+        return this.accountService.findProjectionById(accountId)
+                .map(Mapper.INSTANCE::mapProjection)
+                .onSuccess(projection -> log.info("Found projection of account with id: {}", projection.getId()))
+                .map(ResponseEntity::ok)
+                .onFailure(e -> log.error("Failed fetch projection of account with ID {}. Reason: {}", accountId, e.getMessage()))
+                .onFailure(e -> log.debug("", e))
+                .get();
+    }
+
+    @Override
+    public ResponseEntity<AccountProjectionPageDto> getAllAccountProjections(String cursor, Integer limit) {
+        log.info("Fetching account projections page with limit {}", limit);
+        return Try.of(() -> CursorPageRequest.of(cursor, limit))
+                .flatMap(this.accountService::findAllProjections)
+                .onSuccess(page -> log.info("Fetched {} account projections", page.getData().size()))
+                .map(Mapper.INSTANCE::mapAccountProjectionPage)
+                .map(ResponseEntity::ok)
+                .onFailure(e -> log.error("Failed fetch account projections page. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.debug("", e))
+                .get();
+    }
+
+    @Override
+    public ResponseEntity<AccountProjectionBatchDto> findAccountProjectionsByIds(AccountBatchRequestDto accountBatchRequestDto) {
+        List<Long> accountIds = accountBatchRequestDto.getIds();
+        log.info("Fetching projections of {} accounts", accountIds.size());
+        return this.accountService.findProjectionsByIds(accountIds)
+                .onSuccess(projections -> log.info("Found {} of {} account projections", projections.size(), accountIds.size()))
+                .map(projections -> new AccountProjectionBatchDto()
+                        .data(projections.values().stream().map(Mapper.INSTANCE::mapProjection).toList())
+                        .missingIds(accountIds.stream().distinct().filter(id -> !projections.containsKey(id)).toList()))
+                .map(ResponseEntity::ok)
+                .onFailure(e -> log.error("Failed fetch account projections by ids. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.debug("", e))
+                .get();
+    }
+
+    @Override
+    public ResponseEntity<IdentityVerificationPageDto> getPendingIdentityVerifications(String cursor, Integer limit) {
+        log.info("Fetching pending identity verifications page with limit {}", limit);
+        return Try.of(() -> CursorPageRequest.of(cursor, limit))
+                .flatMap(this.accountService::findPendingIdentityVerifications)
+                .onSuccess(page -> log.info("Fetched {} pending identity verifications", page.getData().size()))
+                .map(Mapper.INSTANCE::mapIdentityVerificationPage)
+                .map(ResponseEntity::ok)
+                .onFailure(e -> log.error("Failed fetch pending identity verifications page. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.debug("", e))
+                .get();
+    }
+
     @Override
     public ResponseEntity<Void> suspendAccount(Long accountId) {
         log.info("Banning account with id: {}", accountId);
@@ -103,13 +163,14 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
 
 
     @Override
-    public ResponseEntity<List<AccountDto>> getAllAccounts() {
-        log.info("Fetching all accounts");
-        return this.accountService.findAll()
-                .onSuccess(accounts -> log.info("Fetched {} accounts", accounts.size()))
-                .map(Mapper.INSTANCE::map)
+    public ResponseEntity<AccountPageDto> getAllAccounts(String cursor, Integer limit) {
+        log.info("Fetching accounts page with limit {}", limit);
+        return Try.of(() -> CursorPageRequest.of(cursor, limit))
+                .flatMap(pageRequest -> this.accountService.findAll(pageRequest))
+                .onSuccess(page -> log.info("Fetched {} accounts", page.getData().size()))
+                .map(Mapper.INSTANCE::mapAccountPage)
                 .map(ResponseEntity::ok)
-                .onFailure(e -> log.error("Failed fetch all accounts. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.error("Failed fetch accounts page. Reason: {}", e.getMessage()))
                 .onFailure(e -> log.debug("", e))
                 .get();
     }
@@ -150,6 +211,20 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
                 .get();
     }
 
+    @Override
+    public ResponseEntity<AccountBatchPatchReportDto> patchAccounts(AccountBatchPatchRequestDto accountBatchPatchRequestDto) {
+        log.info("Patching {} accounts", accountBatchPatchRequestDto.getItems().size());
+        return Try.success(accountBatchPatchRequestDto)
+                .map(Mapper.INSTANCE::map)
+                .flatMap(this.accountService::patchAccounts)
+                .map(results -> new AccountBatchPatchReportDto()
+                        .data(results.stream().map(Mapper.INSTANCE::map).toList()))
+                .map(ResponseEntity::ok)
+                .onFailure(e -> log.error("Failed patching accounts. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.debug("", e))
+                .get();
+    }
+
     @Override
     public ResponseEntity<ProfileDto> findProfileById(Long profileId) {
         log.info("Fetching profile with id: {}", profileId);
@@ -163,13 +238,14 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
     }
 
     @Override
-    public ResponseEntity<List<ProfileDto>> getAllProfiles() {
-        log.info("Fetching all profiles");
-        return this.accountService.getAllProfiles()
-                .onSuccess(profiles -> log.info("Fetched {} profiles", profiles.size()))
-                .map(Mapper.INSTANCE::mapProfiles)
+    public ResponseEntity<ProfilePageDto> getAllProfiles(String cursor, Integer limit) {
+        log.info("Fetching profiles page with limit {}", limit);
+        return Try.of(() -> CursorPageRequest.of(cursor, limit))
+                .flatMap(pageRequest -> this.accountService.getAllProfiles(pageRequest))
+                .onSuccess(page -> log.info("Fetched {} profiles", page.getData().size()))
+                .map(Mapper.INSTANCE::mapProfilePage)
                 .map(ResponseEntity::ok)
-                .onFailure(e -> log.error("Failed fetch all profiles. Reason: {}", e.getMessage()))
+                .onFailure(e -> log.error("Failed fetch profiles page. Reason: {}", e.getMessage()))
                 .onFailure(e -> log.debug("", e))
                 .get();
     }
@@ -190,6 +266,10 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
         @Mapping(target = "legalName", source = "personalInformation.legalName")
         AccountProjectionDto mapProjection(Account account);
 
+        AccountProjectionDto mapProjection(AccountProjection projection);
+
+        ProfileDto map(AccountProjection.ProfileProjection profile);
+
         LegalNameDto map(PersonalInformation.LegalName legalName);
 
         List<AccountDto> map(List<Account> accounts);
@@ -200,6 +280,40 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
 
         List<ProfileDto> mapProfiles(List<Profile> profile);
 
+        default AccountPageDto mapAccountPage(CursorPage<Account> page) {
+            return new AccountPageDto()
+                    .limit(page.getLimit())
+                    .hasNext(page.isHasNext())
+                    .nextCursor(page.getNextCursor())
+                    .data(this.map(page.getData()));
+        }
+
+        default AccountProjectionPageDto mapAccountProjectionPage(CursorPage<AccountProjection> page) {
+            return new AccountProjectionPageDto()
+                    .limit(page.getLimit())
+                    .hasNext(page.isHasNext())
+                    .nextCursor(page.getNextCursor())
+                    .data(page.getData().stream().map(this::mapProjection).toList());
+        }
+
+        IdentityVerificationDto map(IdentityVerificationProjection identityVerification);
+
+        default IdentityVerificationPageDto mapIdentityVerificationPage(CursorPage<IdentityVerificationProjection> page) {
+            return new IdentityVerificationPageDto()
+                    .limit(page.getLimit())
+                    .hasNext(page.isHasNext())
+                    .nextCursor(page.getNextCursor())
+                    .data(page.getData().stream().map(this::map).toList());
+        }
+
+        default ProfilePageDto mapProfilePage(CursorPage<Profile> page) {
+            return new ProfilePageDto()
+                    .limit(page.getLimit())
+                    .hasNext(page.isHasNext())
+                    .nextCursor(page.getNextCursor())
+                    .data(this.mapProfiles(page.getData()));
+        }
+
         default List<AccountField> map(AccountPatchRequestDto patchRequest) {
             List<AccountField> patchedFields = new ArrayList<>();
             Optional.ofNullable(patchRequest.getAbout())
@@ -244,6 +358,19 @@ public class AccountsServiceApi implements AccountsApi, ProfilesApi {
             return patchedFields;
         }
 
+        /**
+         * Items patching the same account are merged, in order.
+         */
+        default Map<Long, List<AccountField>> map(AccountBatchPatchRequestDto batchPatchRequest) {
+            Map<Long, List<AccountField>> accountFields = new LinkedHashMap<>();
+            batchPatchRequest.getItems()
+                    .forEach(item -> accountFields.computeIfAbsent(item.getAccountId(), id -> new ArrayList<>())
+                            .addAll(this.map(item.getPatch())));
+            return accountFields;
+        }
+
+        AccountBatchPatchResultDto map(AccountPatchResult result);
+
         AboutField map(AccountPatchAboutDto aboutDto);
 
         AddressField map(AccountPatchAccountAddressDto addressDto);
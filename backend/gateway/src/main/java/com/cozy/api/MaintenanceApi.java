@@ -1,42 +1,141 @@
 package com.cozy.api;
 
-import com.cozy.shared.security.ManagementApiAdapter;
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
+import com.cozy.account.core.port.in.AccountManagement;
+import com.cozy.infra.AccountImportJobs;
+import com.cozy.infra.AccountMaintenanceTasks;
+import com.cozy.infra.RoleMigrationJobs;
+import com.cozy.shared.security.RoleMigration;
+import com.github.kagkarlsson.scheduler.SchedulerClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/maintenance")
 public class MaintenanceApi {
-    private final ManagementApiAdapter managementApiAdapter;
+    private final RoleMigrationJobs roleMigrationJobs;
+    private final AccountImportJobs accountImportJobs;
+    private final AccountMaintenanceTasks accountMaintenanceTasks;
+    private final AccountManagement accountManagement;
+    private final SchedulerClient schedulerClient;
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/auth0/migrate-user-role/bulk")
-    public ResponseEntity<String> migrateUserRole(@RequestParam("fromRole") String fromRole, @RequestParam("toRole") String toRole, @RequestParam(name = "force", defaultValue = "false") boolean force) {
-        return this.managementApiAdapter.migrateUsersRole(fromRole, toRole, force)
-                .map("%s users have been updated"::formatted)
-                .map(ResponseEntity::ok)
-                .onFailure(e -> log.error("Failed to change users role from {} to {}", fromRole, toRole))
+    public ResponseEntity<RoleMigration> migrateUserRole(@RequestParam("fromRole") String fromRole, @RequestParam("toRole") String toRole, @RequestParam(name = "force", defaultValue = "false") boolean force) {
+        return this.roleMigrationJobs.submit(RoleMigration.assign(fromRole, toRole, force))
+                .map(migration -> ResponseEntity.accepted().body(migration))
+                .onFailure(e -> log.error("Failed to submit the migration of users role from {} to {}", fromRole, toRole))
                 .onFailure(e -> log.error("", e))
                 .get();
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/auth0/remove-user-role/bulk")
-    public ResponseEntity<String> removeUserRole(@RequestParam("role") String role, @RequestParam(name = "force", defaultValue = "false") boolean force) {
-        return this.managementApiAdapter.removeUsersRole(role, force)
-                .map("%s users have been updated"::formatted)
+    public ResponseEntity<RoleMigration> removeUserRole(@RequestParam("role") String role) {
+        return this.roleMigrationJobs.submit(RoleMigration.remove(role))
+                .map(migration -> ResponseEntity.accepted().body(migration))
+                .onFailure(e -> log.error("Failed to submit the removal of users role {}", role))
+                .onFailure(e -> log.error("", e))
+                .get();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/auth0/role-migrations/{migrationId}")
+    public ResponseEntity<RoleMigration> getRoleMigration(@PathVariable("migrationId") UUID migrationId) {
+        return this.roleMigrationJobs.findById(migrationId)
                 .map(ResponseEntity::ok)
-                .onFailure(e -> log.error("Failed to remove users role {}", role))
+                .get();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/auth0/role-migrations/{migrationId}/resume")
+    public ResponseEntity<RoleMigration> resumeRoleMigration(@PathVariable("migrationId") UUID migrationId) {
+        return this.roleMigrationJobs.resume(migrationId)
+                .map(migration -> ResponseEntity.accepted().body(migration))
+                .onFailure(e -> log.error("Failed to resume role migration {}", migrationId))
+                .get();
+    }
+
+    /**
+     * The body is the raw CSV or NDJSON file, it is streamed to the staging directory and never held in memory.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/accounts/imports")
+    public ResponseEntity<AccountImport> importAccounts(@RequestParam("format") AccountImport.Format format, InputStream content) {
+        return this.accountImportJobs.submit(format, content)
+                .map(accountImport -> ResponseEntity.accepted().body(accountImport))
+                .onFailure(e -> log.error("Failed to submit the {} account import", format))
                 .onFailure(e -> log.error("", e))
                 .get();
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/accounts/imports/{importId}")
+    public ResponseEntity<AccountImport> getAccountImport(@PathVariable("importId") UUID importId) {
+        return this.accountImportJobs.findById(importId)
+                .map(ResponseEntity::ok)
+                .get();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/accounts/imports/{importId}/errors")
+    public ResponseEntity<List<AccountImportError>> getAccountImportErrors(@PathVariable("importId") UUID importId,
+                                                                           @RequestParam(name = "afterRow", defaultValue = "0") long afterRow,
+                                                                           @RequestParam(name = "limit", defaultValue = "500") int limit) {
+        return this.accountImportJobs.findErrors(importId, afterRow, Math.min(limit, 1000))
+                .map(ResponseEntity::ok)
+                .get();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/accounts/imports/{importId}/resume")
+    public ResponseEntity<AccountImport> resumeAccountImport(@PathVariable("importId") UUID importId) {
+        return this.accountImportJobs.resume(importId)
+                .map(accountImport -> ResponseEntity.accepted().body(accountImport))
+                .onFailure(e -> log.error("Failed to resume account import {}", importId))
+                .get();
+    }
+
+    /**
+     * Purge the soft deleted accounts right away instead of waiting for the next scheduled purge. Answers with a
+     * conflict while a previous on demand purge is still pending.
+     *
+     * @param retentionDays the accounts deleted for longer are purged, the configured retention when absent
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/accounts/purge")
+    public ResponseEntity<Void> purgeDeletedAccounts(@RequestParam(name = "retentionDays", required = false) Integer retentionDays) {
+        Duration retention = retentionDays == null ? null : Duration.ofDays(retentionDays);
+        boolean scheduled = this.schedulerClient.scheduleIfNotExists(this.accountMaintenanceTasks.purgeNow(retention), Instant.now());
+        log.info("On demand purge of the deleted accounts {}", scheduled ? "scheduled" : "already pending");
+        return ResponseEntity.status(scheduled ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/accounts/review-queue")
+    public ResponseEntity<List<ReviewQueueSummary>> getReviewQueueSummary() {
+        return this.accountManagement.findReviewQueueSummary()
+                .map(ResponseEntity::ok)
+                .get();
+    }
+
 }
@@ -0,0 +1,227 @@
+package com.cozy.config;
+
+import com.cozy.shared.SystemConfigurationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
+import org.springframework.boot.actuate.web.exchanges.InMemoryHttpExchangeRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Records the HTTP exchanges off the request thread.
+ * <p>
+ * {@link #add(HttpExchange)} only hands the exchange over to a bounded ring buffer, without locking nor allocating.
+ * A single background thread drains the buffer, logs the exchanges with their sensitive headers redacted and keeps
+ * the most recent ones for the {@code httpexchanges} endpoint. Once the buffer is full the exchanges are dropped and
+ * counted, a slow log appender never holds a request back.
+ * <ul>
+ *     <li>Client and server errors are always kept, the other exchanges are kept at the configured sample rate.</li>
+ *     <li>Actuator exchanges are only logged at trace level and never kept.</li>
+ * </ul>
+ * The latency of every exchange, sampled or not, is already measured per route by {@code http.server.requests}.
+ */
+@Slf4j
+public class AsyncHttpExchangeRecorder implements HttpExchangeRepository, MeterBinder, AutoCloseable {
+    private static final String LOG_MESSAGE_TEMPLATE = "{} {} {} { headers: {} } took {} ms";
+    private static final String REDACTED = "******";
+
+    private final ExchangeRing buffer;
+    private final InMemoryHttpExchangeRepository recent = new InMemoryHttpExchangeRepository();
+    private final Set<String> redactedHeaders;
+    private final double successSampleRate;
+    private final long idleParkNanos;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AsyncHttpExchangeRecorder(SystemConfigurationProperties.HttpExchanges properties) {
+        this.buffer = new ExchangeRing(properties.getBufferSize());
+        this.recent.setCapacity(properties.getCapacity());
+        this.redactedHeaders = properties.getRedactedHeaders().stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.successSampleRate = properties.getSuccessSampleRate();
+        this.idleParkNanos = properties.getDrainInterval().toNanos();
+        this.drainer = Thread.ofPlatform()
+                .name("http-exchange-recorder")
+                .daemon()
+                .start(this::drain);
+    }
+
+    @Override
+    public void add(HttpExchange exchange) {
+        if (!this.buffer.offer(exchange)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<HttpExchange> findAll() {
+        return this.recent.findAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.exchanges.recorder.buffered", this.buffer, ExchangeRing::size)
+                .description("Exchanges waiting to be recorded")
+                .register(registry);
+        FunctionCounter.builder("http.exchanges.recorder.dropped", this.dropped, AtomicLong::get)
+                .description("Exchanges dropped because the buffer was full")
+                .register(registry);
+        FunctionCounter.builder("http.exchanges.recorder.sampled.out", this.sampledOut, AtomicLong::get)
+                .description("Successful exchanges neither logged nor kept")
+                .register(registry);
+    }
+
+    /**
+     * Stop the background thread once the exchanges already buffered are recorded.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        this.running = false;
+        LockSupport.unpark(this.drainer);
+        this.drainer.join(Duration.ofSeconds(5));
+    }
+
+    private void drain() {
+        while (this.running || this.buffer.size() > 0) {
+            HttpExchange exchange = this.buffer.poll();
+            if (exchange == null) {
+                LockSupport.parkNanos(this.idleParkNanos);
+                continue;
+            }
+            try {
+                this.record(exchange);
+            } catch (RuntimeException e) {
+                log.warn("Failed to record HTTP exchange. Reason: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void record(HttpExchange exchange) {
+        String path = exchange.getRequest().getUri().getPath();
+        int status = exchange.getResponse().getStatus();
+        if (path.contains("actuator")) {
+            if (log.isTraceEnabled()) {
+                log.trace(LOG_MESSAGE_TEMPLATE, status, exchange.getRequest().getMethod(), path, this.headers(exchange), millis(exchange));
+            }
+            return;
+        }
+        boolean isError = status >= 400;
+        if (!isError && ThreadLocalRandom.current().nextDouble() >= this.successSampleRate) {
+            this.sampledOut.incrementAndGet();
+            return;
+        }
+        if (isError) {
+            log.error(LOG_MESSAGE_TEMPLATE, status, exchange.getRequest().getMethod(), path, this.headers(exchange), millis(exchange));
+        } else if (log.isInfoEnabled()) {
+            log.info(LOG_MESSAGE_TEMPLATE, status, exchange.getRequest().getMethod(), path, this.headers(exchange), millis(exchange));
+        }
+        this.recent.add(exchange);
+    }
+
+    String headers(HttpExchange exchange) {
+        Map<String, List<String>> headers = exchange.getRequest().getHeaders();
+        return headers.entrySet()
+                .stream()
+                .map(entry -> "%s = %s".formatted(entry.getKey(), this.redactedHeaders.contains(entry.getKey().toLowerCase(Locale.ROOT))
+                        ? REDACTED
+                        : String.join(" ", entry.getValue())))
+                .collect(Collectors.joining(","));
+    }
+
+    private static Long millis(HttpExchange exchange) {
+        return exchange.getTimeTaken() == null ? null : exchange.getTimeTaken().toMillis();
+    }
+
+    /**
+     * Bounded multi producer, single consumer queue. Each slot carries a sequence number telling whether it is free
+     * for the producer claiming that position or filled for the consumer, a producer only contends on the tail index.
+     */
+    static final class ExchangeRing {
+        private final AtomicReferenceArray<HttpExchange> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+        private final int mask;
+
+        /**
+         * @param capacity number of slots, rounded up to the next power of two
+         */
+        ExchangeRing(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Capacity must not be less than one!");
+            }
+            int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                this.sequences.set(i, i);
+            }
+            this.mask = size - 1;
+        }
+
+        /**
+         * @return {@code false} when the ring is full
+         */
+        boolean offer(HttpExchange exchange) {
+            long position = this.tail.get();
+            while (true) {
+                int index = (int) position & this.mask;
+                long distance = this.sequences.get(index) - position;
+                if (distance == 0) {
+                    if (this.tail.compareAndSet(position, position + 1)) {
+                        this.slots.lazySet(index, exchange);
+                        // Publishes the exchange to the consumer
+                        this.sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = this.tail.get();
+                } else if (distance < 0) {
+                    return false;
+                } else {
+                    position = this.tail.get();
+                }
+            }
+        }
+
+        /**
+         * Only called by the consumer thread.
+         *
+         * @return the oldest exchange, {@code null} when the ring is empty
+         */
+        HttpExchange poll() {
+            long position = this.head.get();
+            int index = (int) position & this.mask;
+            if (this.sequences.get(index) != position + 1) {
+                return null;
+            }
+            HttpExchange exchange = this.slots.get(index);
+            this.slots.lazySet(index, null);
+            this.head.lazySet(position + 1);
+            // Hands the slot back to the producers one lap later
+            this.sequences.set(index, position + this.mask + 1);
+            return exchange;
+        }
+
+        int size() {
+            return (int) Math.max(0, this.tail.get() - this.head.get());
+        }
+    }
+}
@@ -6,9 +6,13 @@ import com.cozy.infra.ServicesFacade;
 import com.cozy.shared.ServiceConfigurationProperties;
 import com.cozy.shared.SystemConfigurationProperties;
 import com.cozy.shared.caching.CachingConfiguration;
+import com.cozy.shared.caching.SecondLevelCacheConfiguration;
+import io.micrometer.observation.ObservationRegistry;
 import liquibase.integration.spring.SpringLiquibase;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -31,7 +35,9 @@ import javax.sql.DataSource;
 @Import({
         SecurityConfiguration.class,
         CachingConfiguration.class,
-        SchedulingConfiguration.class
+        SecondLevelCacheConfiguration.class,
+        SchedulingConfiguration.class,
+        TracingConfiguration.class
 })
 @EnableConfigurationProperties({
         ServiceConfigurationProperties.class,
@@ -69,8 +75,23 @@ public class MasterConfiguration {
         return new ServicesFacade(accountService);
     }
 
+    /**
+     * Takes over {@code @Observed}, keep {@code management.observations.annotations.enabled} off or every method would
+     * be observed twice.
+     */
     @Bean
-    public CustomInMemoryHttpExchangeRepository customInMemoryHttpExchangeRepository() {
-        return new CustomInMemoryHttpExchangeRepository();
+    public TryObservationAspect tryObservationAspect(ObservationRegistry observationRegistry) {
+        return new TryObservationAspect(observationRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AsyncHttpExchangeRecorder httpExchangeRecorder(SystemConfigurationProperties properties) {
+        return new AsyncHttpExchangeRecorder(properties.getHttpExchanges());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(SystemConfigurationProperties properties) {
+        return new VirtualThreadPinningMonitor(properties.getVirtualThreads());
     }
 }
@@ -1,22 +1,68 @@
 package com.cozy.config;
 
+import com.cozy.account.core.port.in.AccountImportManagement;
+import com.cozy.account.core.port.in.AccountManagement;
+import com.cozy.infra.AccountImportJobs;
+import com.cozy.infra.AccountMaintenanceTasks;
+import com.cozy.infra.RoleMigrationJobs;
+import com.cozy.shared.SystemConfigurationProperties;
+import com.cozy.shared.security.CachingIdPUserManagementAdapter;
+import com.cozy.shared.security.RoleMigrationEngine;
+import com.cozy.shared.security.RoleMigrationRepository;
+import com.github.kagkarlsson.scheduler.boot.config.DbSchedulerCustomizer;
+import com.github.kagkarlsson.scheduler.boot.config.DbSchedulerProperties;
+import com.github.kagkarlsson.scheduler.task.helper.OneTimeTask;
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
 import org.jobrunr.jobs.mappers.JobMapper;
 import org.jobrunr.scheduling.JobScheduler;
-import org.jobrunr.storage.InMemoryStorageProvider;
+import org.jobrunr.spring.autoconfigure.JobRunrProperties;
 import org.jobrunr.storage.StorageProvider;
+import org.jobrunr.storage.StorageProviderUtils.DatabaseOptions;
+import org.jobrunr.storage.sql.postgres.PostgresStorageProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /**
  * See <a href="https://www.baeldung.com/java-jobrunr-spring">documentation</a> for more information about configuring
  * JobRunr library
+ * <p>
+ * Jobs are stored in Postgres, in the tables the system changelog maintains, so that every instance running a
+ * background job server shares the same queue. The number of workers and the poll interval of each server are set
+ * with {@code org.jobrunr.background-job-server.*}.
+ * <p>
+ * The recurring maintenance runs on db-scheduler, which picks up every {@code Task} bean. Its throughput is set with
+ * {@code db-scheduler.*}, the schedule and priority of each task with {@code system.maintenance.*}. With
+ * {@code spring.threads.virtual.enabled} its executions run on virtual threads. Lock-and-fetch keeps up to
+ * {@code threads} times {@code polling-strategy-upper-limit-fraction-of-threads} executions picked, a semaphore still
+ * lets only {@code db-scheduler.threads} of them run at once, the others wait for a permit.
  */
 public class SchedulingConfiguration {
 
     @Bean
-    public StorageProvider storageProvider(JobMapper jobMapper) {
-        InMemoryStorageProvider inMemoryStorageProvider = new InMemoryStorageProvider();
-        inMemoryStorageProvider.setJobMapper(jobMapper);
-        return inMemoryStorageProvider;
+    @DependsOn("systemLiquibaseRunner")
+    public StorageProvider storageProvider(DataSource dataSource, JobMapper jobMapper, JobRunrProperties jobRunrProperties) {
+        // The tables are created by the system changelog, only check that they are up to date
+        PostgresStorageProvider storageProvider = new PostgresStorageProvider(dataSource, jobRunrProperties.getDatabase().getTablePrefix(), DatabaseOptions.VALIDATE);
+        storageProvider.setJobMapper(jobMapper);
+        return storageProvider;
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public DbSchedulerCustomizer virtualThreadsDbSchedulerCustomizer(DbSchedulerProperties dbSchedulerProperties) {
+        return new DbSchedulerCustomizer() {
+            @Override
+            public Optional<ExecutorService> executorService() {
+                return Optional.of(new BoundedVirtualThreadExecutor("db-scheduler-", dbSchedulerProperties.getThreads()));
+            }
+        };
     }
 
     @Bean
@@ -24,4 +70,36 @@ public class SchedulingConfiguration {
         return new JobScheduler(storageProvider);
     }
 
+    @Bean
+    public RoleMigrationJobs roleMigrationJobs(JobScheduler jobScheduler, RoleMigrationRepository roleMigrationRepository, RoleMigrationEngine roleMigrationEngine) {
+        return new RoleMigrationJobs(jobScheduler, roleMigrationRepository, roleMigrationEngine);
+    }
+
+    @Bean
+    public AccountImportJobs accountImportJobs(JobScheduler jobScheduler, AccountImportManagement accountImportManagement) {
+        return new AccountImportJobs(jobScheduler, accountImportManagement);
+    }
+
+    @Bean
+    public AccountMaintenanceTasks accountMaintenanceTasks(AccountManagement accountManagement,
+                                                           CachingIdPUserManagementAdapter userInfoRestClient,
+                                                           SystemConfigurationProperties properties) {
+        return new AccountMaintenanceTasks(accountManagement, userInfoRestClient, properties.getMaintenance());
+    }
+
+    @Bean
+    public RecurringTask<Void> accountPurgeTask(AccountMaintenanceTasks accountMaintenanceTasks) {
+        return accountMaintenanceTasks.getAccountPurge();
+    }
+
+    @Bean
+    public OneTimeTask<Duration> accountPurgeNowTask(AccountMaintenanceTasks accountMaintenanceTasks) {
+        return accountMaintenanceTasks.getAccountPurgeNow();
+    }
+
+    @Bean
+    public RecurringTask<Void> reviewQueueSummaryTask(AccountMaintenanceTasks accountMaintenanceTasks) {
+        return accountMaintenanceTasks.getReviewQueueSummary();
+    }
+
 }
@@ -4,16 +4,23 @@
 
 package com.cozy.config;
 
+import com.cozy.infra.JdbcRoleMigrationRepository;
 import com.cozy.shared.security.Auth0Properties;
+import com.cozy.shared.security.CachingIdPUserManagementAdapter;
 import com.cozy.shared.security.DefaultIdPUserManagementAdapter;
 import com.cozy.shared.security.IdPUserManagementAdapter;
 import com.cozy.shared.security.ManagementApiAdapter;
+import com.cozy.shared.security.RoleMigrationEngine;
+import com.cozy.shared.security.RoleMigrationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
@@ -25,6 +32,9 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 import static org.springframework.security.web.util.matcher.RegexRequestMatcher.regexMatcher;
 
@@ -34,15 +44,29 @@ import static org.springframework.security.web.util.matcher.RegexRequestMatcher.
 @Import(Auth0Properties.class)
 public class SecurityConfiguration {
     private final Auth0Properties auth0Properties;
+    // Auth0 calls spend their time waiting on the network, a virtual thread per call is cheaper than a sized pool.
+    // Not exposed as a bean, an Executor bean would replace Boot's application task executor.
+    private final Executor identityProviderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public ManagementApiAdapter managementAPI(MeterRegistry meterRegistry) {
+        return new ManagementApiAdapter(auth0Properties, meterRegistry);
+    }
+
+    @Bean
+    public CachingIdPUserManagementAdapter userInfoRestClient(ManagementApiAdapter managementAPI, ObservationRegistry observationRegistry) {
+        IdPUserManagementAdapter idpUserManagementAdapter = new DefaultIdPUserManagementAdapter(managementAPI, this.identityProviderExecutor, this.auth0Properties.getRequestTimeout(), observationRegistry);
+        return new CachingIdPUserManagementAdapter(idpUserManagementAdapter, this.auth0Properties.getUserInfoCache(), this.identityProviderExecutor);
+    }
 
     @Bean
-    public ManagementApiAdapter managementAPI() {
-        return new ManagementApiAdapter(auth0Properties);
+    public RoleMigrationRepository roleMigrationRepository(JdbcClient jdbcClient) {
+        return new JdbcRoleMigrationRepository(jdbcClient);
     }
 
     @Bean
-    public IdPUserManagementAdapter userInfoRestClient(ManagementApiAdapter managementAPI) {
-        return new DefaultIdPUserManagementAdapter(managementAPI);
+    public RoleMigrationEngine roleMigrationEngine(ManagementApiAdapter managementAPI, RoleMigrationRepository roleMigrationRepository) {
+        return new RoleMigrationEngine(managementAPI, roleMigrationRepository, this.auth0Properties.getRoleMigration(), this.identityProviderExecutor);
     }
 
     @Bean
@@ -0,0 +1,125 @@
+package com.cozy.config;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.cozy.shared.SystemConfigurationProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the traces the head sampler left out when they turn out to be worth looking at, i.e. failed, slow or on an
+ * always sampled route.
+ * <p>
+ * Requires {@code alwaysSampleLocal}, the spans of the traces not sampled up front are then recorded but ignored by
+ * the exporters. This handler holds them per local root until the local root span ends and its outcome is known. A
+ * trace worth keeping is handed over to the other span handlers as if it had been sampled, the others are dropped.
+ * <ul>
+ *     <li>At most {@code maxPendingTraces} traces and {@code maxSpansPerTrace} spans per trace are held, the spans
+ *     beyond are dropped.</li>
+ *     <li>A span ending after its local root is dropped, it is held until the trace is older than
+ *     {@code maxPendingAge} and the buffer full.</li>
+ * </ul>
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final SystemConfigurationProperties.Tracing properties;
+    private final ObjectProvider<SpanHandler> spanHandlers;
+    private final long slowThresholdMicros;
+    private final long maxPendingAgeNanos;
+    private final Map<Long, PendingTrace> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param spanHandlers the exporters, looked up on the first kept trace since they are built along with the tracer
+     */
+    public TailSamplingSpanHandler(SystemConfigurationProperties.Tracing properties, ObjectProvider<SpanHandler> spanHandlers) {
+        this.properties = properties;
+        this.spanHandlers = spanHandlers;
+        this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(properties.getSlowThreshold().toNanos());
+        this.maxPendingAgeNanos = properties.getMaxPendingAge().toNanos();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            // Sampled up front, the exporters take it from here
+            return true;
+        }
+        if (context.isLocalRoot()) {
+            PendingTrace trace = this.pending.remove(context.localRootId());
+            if (cause == Cause.FINISHED && this.isWorthKeeping(span)) {
+                this.export(trace, new PendingSpan(context, span));
+            }
+            return true;
+        }
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        if (this.pending.size() >= this.properties.getMaxPendingTraces() && !this.pending.containsKey(context.localRootId())) {
+            this.evictStale();
+            if (this.pending.size() >= this.properties.getMaxPendingTraces()) {
+                return true;
+            }
+        }
+        this.pending.compute(context.localRootId(), (localRootId, trace) -> {
+            PendingTrace held = trace == null ? new PendingTrace(System.nanoTime(), new ArrayList<>()) : trace;
+            if (held.spans().size() < this.properties.getMaxSpansPerTrace()) {
+                held.spans().add(new PendingSpan(context, span));
+            }
+            return held;
+        });
+        return true;
+    }
+
+    private boolean isWorthKeeping(MutableSpan span) {
+        if (Objects.nonNull(span.error())) {
+            return true;
+        }
+        String status = Objects.requireNonNullElse(span.tag("status"), Objects.requireNonNullElse(span.tag("http.status_code"), ""));
+        if (status.startsWith("5")) {
+            return true;
+        }
+        if (span.finishTimestamp() - span.startTimestamp() >= this.slowThresholdMicros) {
+            return true;
+        }
+        String route = span.tag("uri");
+        return Objects.nonNull(route) && this.properties.getAlwaysSampledRoutes().stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, route));
+    }
+
+    private void export(PendingTrace trace, PendingSpan localRoot) {
+        List<SpanHandler> exporters = this.spanHandlers.orderedStream()
+                .filter(handler -> handler != this)
+                .toList();
+        if (Objects.nonNull(trace)) {
+            trace.spans().forEach(span -> span.exportTo(exporters));
+        }
+        localRoot.exportTo(exporters);
+    }
+
+    private void evictStale() {
+        long now = System.nanoTime();
+        this.pending.values().removeIf(trace -> now - trace.heldSince() > this.maxPendingAgeNanos);
+    }
+
+    private record PendingTrace(long heldSince, List<PendingSpan> spans) {
+    }
+
+    private record PendingSpan(TraceContext context, MutableSpan span) {
+        void exportTo(List<SpanHandler> exporters) {
+            TraceContext sampled = this.context.toBuilder().sampled(true).build();
+            for (SpanHandler exporter : exporters) {
+                if (!exporter.end(sampled, this.span, Cause.FINISHED)) {
+                    break;
+                }
+            }
+        }
+    }
+}
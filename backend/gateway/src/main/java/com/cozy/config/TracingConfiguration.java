@@ -0,0 +1,62 @@
+package com.cozy.config;
+
+import brave.Tracing;
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import com.cozy.shared.SystemConfigurationProperties;
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Samples the traces in place of {@code management.tracing.sampling.probability}:
+ * <ul>
+ *     <li>up to {@code system.tracing.tracesPerSecond} traces are sampled when they start,</li>
+ *     <li>the other traces are recorded locally and only exported when they fail or are slow, see
+ *     {@link TailSamplingSpanHandler},</li>
+ *     <li>the requests on {@code system.tracing.excludedPaths}, e.g. the probes, are not observed at all.</li>
+ * </ul>
+ */
+public class TracingConfiguration {
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Bean
+    public Sampler braveSampler(SystemConfigurationProperties properties) {
+        return RateLimitingSampler.create(properties.getTracing().getTracesPerSecond());
+    }
+
+    /**
+     * Hands the spans of the traces not sampled up front to the span handlers, the exporters still ignore them.
+     */
+    @Bean
+    public TracingCustomizer alwaysSampleLocalTracingCustomizer() {
+        return Tracing.Builder::alwaysSampleLocal;
+    }
+
+    @Bean
+    public TailSamplingSpanHandler tailSamplingSpanHandler(SystemConfigurationProperties properties, ObjectProvider<SpanHandler> spanHandlers) {
+        return new TailSamplingSpanHandler(properties.getTracing(), spanHandlers);
+    }
+
+    @Bean
+    public ObservationPredicate excludedPathsObservationPredicate(SystemConfigurationProperties properties) {
+        List<String> excludedPaths = properties.getTracing().getExcludedPaths();
+        boolean excludeSpringSecurity = properties.getTracing().isExcludeSpringSecurity();
+        return (name, context) -> {
+            if (excludeSpringSecurity && name.startsWith("spring.security.")) {
+                return false;
+            }
+            if (context instanceof ServerRequestObservationContext serverContext) {
+                String path = serverContext.getCarrier().getRequestURI();
+                return excludedPaths.stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+            }
+            return true;
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.cozy.config;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Observes the beans and methods annotated with {@link Observed}, in place of Micrometer's {@code ObservedAspect}.
+ * <p>
+ * The ports report their failures as a failed {@link Try} rather than by throwing, an aspect only looking at exceptions
+ * would count them as successes. The observation is stopped once the outcome is known:
+ * <ul>
+ *     <li>for a {@link Try}, with its cause when it failed,</li>
+ *     <li>for a {@link CompletionStage}, once it completes,</li>
+ *     <li>otherwise when the method returns or throws.</li>
+ * </ul>
+ * Besides the {@code error} tag set by the meter handler, every observation is tagged with its {@code class},
+ * {@code method} and {@code outcome}, i.e. {@code SUCCESS} or {@code FAILURE}.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class TryObservationAspect {
+    private static final String DEFAULT_OBSERVATION_NAME = "method.observed";
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("@within(io.micrometer.observation.annotation.Observed) && execution(public * *(..)) && !@annotation(io.micrometer.observation.annotation.Observed)")
+    public Object observeClass(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        return this.observe(joinPoint, AnnotatedElementUtils.findMergedAnnotation(targetClass, Observed.class));
+    }
+
+    @Around("execution(@io.micrometer.observation.annotation.Observed * *(..))")
+    public Object observeMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), AopUtils.getTargetClass(joinPoint.getTarget()));
+        return this.observe(joinPoint, AnnotatedElementUtils.findMergedAnnotation(method, Observed.class));
+    }
+
+    private Object observe(ProceedingJoinPoint joinPoint, Observed observed) throws Throwable {
+        String className = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(observed.name().isBlank() ? DEFAULT_OBSERVATION_NAME : observed.name(), this.observationRegistry)
+                .contextualName(observed.contextualName().isBlank() ? "%s#%s".formatted(className, methodName) : observed.contextualName())
+                .lowCardinalityKeyValue("class", className)
+                .lowCardinalityKeyValue("method", methodName)
+                .lowCardinalityKeyValues(KeyValues.of(observed.lowCardinalityKeyValues()))
+                .start();
+        Object result;
+        try (Observation.Scope ignored = observation.openScope()) {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(observation, e);
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.whenComplete((value, error) -> stop(observation, error));
+        }
+        stop(observation, result instanceof Try<?> attempt && attempt.isFailure() ? attempt.getCause() : null);
+        return result;
+    }
+
+    private static void stop(Observation observation, Throwable error) {
+        if (error == null) {
+            observation.lowCardinalityKeyValue("outcome", "SUCCESS");
+        } else {
+            observation.lowCardinalityKeyValue("outcome", "FAILURE");
+            observation.error(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+        observation.stop();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cozy.config;
+
+import com.cozy.shared.SystemConfigurationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the virtual threads pinned to their carrier, typically while blocking inside a {@code synchronized} block,
+ * from the {@code jdk.VirtualThreadPinned} events JFR records in process.
+ * <p>
+ * Each pinning longer than the threshold is counted under {@code jvm.threads.virtual.pinned}. The first occurrence of
+ * each call site is logged with its stack, the following ones only at debug level. A pinned thread holds one of the few
+ * carriers, the usual fix is a {@link java.util.concurrent.locks.ReentrantLock} around the blocking call.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements MeterBinder, AutoCloseable {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final int stackDepth;
+    private final int maxReportedSites;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private final AtomicLong pinned = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+
+    public VirtualThreadPinningMonitor(SystemConfigurationProperties.VirtualThreads properties) {
+        this.stackDepth = properties.getPinningStackDepth();
+        this.maxReportedSites = properties.getMaxReportedPinningSites();
+        this.stream.enable(PINNED_EVENT)
+                .withThreshold(properties.getPinningThreshold())
+                .withStackTrace();
+        this.stream.onEvent(PINNED_EVENT, this::onPinned);
+        this.stream.startAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jvm.threads.virtual.pinned", this.pinned, AtomicLong::get)
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(registry);
+        FunctionCounter.builder("jvm.threads.virtual.pinned.duration", this.pinnedNanos, nanos -> nanos.get() / 1e9)
+                .description("Time spent pinned by the virtual threads counted in jvm.threads.virtual.pinned")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        this.stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        this.pinned.incrementAndGet();
+        this.pinnedNanos.addAndGet(duration.toNanos());
+        String stack = this.stack(event);
+        if (this.reportedSites.size() < this.maxReportedSites && this.reportedSites.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms{}", duration.toMillis(), stack);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms{}", duration.toMillis(), stack);
+        }
+    }
+
+    private String stack(RecordedEvent event) {
+        if (Objects.isNull(event.getStackTrace())) {
+            return " unknown location";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(this.stackDepth)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining(""));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return "%n\tat %s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+    }
+}
@@ -3,20 +3,29 @@ package com.cozy.core.adapter;
 import com.cozy.account.core.model.entity.Account;
 import com.cozy.account.core.model.entity.PersonalInformation;
 import com.cozy.account.core.model.entity.Profile;
+import com.cozy.account.core.model.payload.internal.AccountPatchResult;
 import com.cozy.account.core.model.payload.internal.field.AccountField;
 import com.cozy.account.core.model.payload.internal.field.RegisterUserRequest;
 import com.cozy.account.core.model.payload.internal.field.UpdateProfileRequest;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
 import com.cozy.account.core.port.in.AccountManagement;
 import com.cozy.account.core.port.in.ProfileManagement;
 import com.cozy.infra.ServicesFacade;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import io.vavr.control.Try;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -47,6 +56,24 @@ public class AccountService implements AccountManagement, ProfileManagement {
                 .makeUserHost(accountId);
     }
 
+    @Override
+    public Try<AccountProjection> findProjectionById(Long accountId) {
+        return this.servicesFacade.accountService()
+                .findProjectionById(accountId);
+    }
+
+    @Override
+    public Try<CursorPage<AccountProjection>> findAllProjections(CursorPageRequest pageRequest) {
+        return this.servicesFacade.accountService()
+                .findAllProjections(pageRequest);
+    }
+
+    @Override
+    public Try<Map<Long, AccountProjection>> findProjectionsByIds(List<Long> accountIds) {
+        return this.servicesFacade.accountService()
+                .findProjectionsByIds(accountIds);
+    }
+
     @Override
     public Try<List<Account>> findAll() {
         return this.servicesFacade.accountService()
@@ -59,6 +86,18 @@ public class AccountService implements AccountManagement, ProfileManagement {
                 .findAll(accountIds);
     }
 
+    @Override
+    public Try<CursorPage<Account>> findAll(CursorPageRequest pageRequest) {
+        return this.servicesFacade.accountService()
+                .findAll(pageRequest);
+    }
+
+    @Override
+    public Try<Long> exportAll(Consumer<Account> consumer) {
+        return this.servicesFacade.accountService()
+                .exportAll(consumer);
+    }
+
     @Override
     public Try<Void> delete(Long accountId) {
         return this.servicesFacade.accountService()
@@ -77,6 +116,12 @@ public class AccountService implements AccountManagement, ProfileManagement {
                 .patchAccount(accountId, accountFields);
     }
 
+    @Override
+    public Try<List<AccountPatchResult>> patchAccounts(Map<Long, List<AccountField>> accountFields) {
+        return this.servicesFacade.accountService()
+                .patchAccounts(accountFields);
+    }
+
     @Override
     public Try<Boolean> isUserAllowedToCreateListing(Long accountId) {
         return this.servicesFacade.accountService()
@@ -113,6 +158,36 @@ public class AccountService implements AccountManagement, ProfileManagement {
         return this.servicesFacade.accountService().verifyIdentityInformation(accountId, status, rejectionReason);
     }
 
+    @Override
+    public Try<CursorPage<IdentityVerificationProjection>> findPendingIdentityVerifications(CursorPageRequest pageRequest) {
+        return this.servicesFacade.accountService()
+                .findPendingIdentityVerifications(pageRequest);
+    }
+
+    @Override
+    public Try<List<ReviewQueueSummary>> findReviewQueueSummary() {
+        return this.servicesFacade.accountService()
+                .findReviewQueueSummary();
+    }
+
+    @Override
+    public Try<List<ReviewQueueSummary>> refreshReviewQueueSummary() {
+        return this.servicesFacade.accountService()
+                .refreshReviewQueueSummary();
+    }
+
+    @Override
+    public Try<Integer> purgeDeletedAccounts(ZonedDateTime deletedBefore, int limit) {
+        return this.servicesFacade.accountService()
+                .purgeDeletedAccounts(deletedBefore, limit);
+    }
+
+    @Override
+    public Try<List<String>> findRecentlyActiveUserIds(int limit) {
+        return this.servicesFacade.accountService()
+                .findRecentlyActiveUserIds(limit);
+    }
+
     @Override
     public Try<Void> suspendAccount(Long accountId) {
         return this.servicesFacade.accountService().suspendAccount(accountId);
@@ -130,6 +205,12 @@ public class AccountService implements AccountManagement, ProfileManagement {
                 .getAllProfiles();
     }
 
+    @Override
+    public Try<CursorPage<Profile>> getAllProfiles(CursorPageRequest pageRequest) {
+        return this.servicesFacade.accountService()
+                .getAllProfiles(pageRequest);
+    }
+
     @Override
     public Try<Profile> updateProfileById(Long profileId, UpdateProfileRequest request) {
         return this.servicesFacade.accountService()
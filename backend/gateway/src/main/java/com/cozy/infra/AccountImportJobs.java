@@ -0,0 +1,56 @@
+package com.cozy.infra;
+
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import com.cozy.account.core.port.in.AccountImportManagement;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jobrunr.jobs.annotations.Job;
+import org.jobrunr.scheduling.JobScheduler;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs the account imports as background jobs, the caller gets the import id back right away and polls its progress.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AccountImportJobs {
+    private final JobScheduler jobScheduler;
+    private final AccountImportManagement accountImportManagement;
+
+    public Try<AccountImport> submit(AccountImport.Format format, InputStream content) {
+        return this.accountImportManagement.create(format, content)
+                .andThen(accountImport -> this.enqueue(accountImport.getId()));
+    }
+
+    /**
+     * Start the import again after its last checkpoint, e.g. after it failed or the instance running it was stopped.
+     */
+    public Try<AccountImport> resume(UUID importId) {
+        return this.accountImportManagement.findById(importId)
+                .filter(accountImport -> !accountImport.isDone(), () -> new IllegalStateException("Account import %s is already completed".formatted(importId)))
+                .andThen(accountImport -> this.enqueue(accountImport.getId()));
+    }
+
+    public Try<AccountImport> findById(UUID importId) {
+        return this.accountImportManagement.findById(importId);
+    }
+
+    public Try<List<AccountImportError>> findErrors(UUID importId, long afterRow, int limit) {
+        return this.accountImportManagement.findErrors(importId, afterRow, limit);
+    }
+
+    @Job(name = "Account import %0", retries = 2)
+    public void run(UUID importId) {
+        this.accountImportManagement.run(importId).get();
+    }
+
+    private void enqueue(UUID importId) {
+        this.jobScheduler.<AccountImportJobs>enqueue(jobs -> jobs.run(importId));
+        log.info("Account import {} enqueued", importId);
+    }
+}
@@ -0,0 +1,106 @@
+package com.cozy.infra;
+
+import com.cozy.account.core.port.in.AccountManagement;
+import com.cozy.shared.SystemConfigurationProperties;
+import com.cozy.shared.security.CachingIdPUserManagementAdapter;
+import com.github.kagkarlsson.scheduler.task.ExecutionContext;
+import com.github.kagkarlsson.scheduler.task.TaskInstance;
+import com.github.kagkarlsson.scheduler.task.helper.OneTimeTask;
+import com.github.kagkarlsson.scheduler.task.helper.RecurringTask;
+import com.github.kagkarlsson.scheduler.task.helper.Tasks;
+import com.github.kagkarlsson.scheduler.task.schedule.Schedules;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * Account maintenance run by db-scheduler. The executions live in {@code SYSTEM.SCHEDULED_TASKS}, every instance polls
+ * the table and an execution is picked by a single one of them. An instance keeps the executions it runs alive through
+ * the heartbeat column, the executions of an instance that stopped heartbeating are picked up again by the others.
+ * <ul>
+ *     <li>{@value #ACCOUNT_PURGE}: removes for good the accounts soft deleted for longer than the retention, one chunk
+ *     per transaction. The purge stops between two chunks when the instance shuts down, the next run carries on.</li>
+ *     <li>{@value #ACCOUNT_PURGE_NOW}: the same purge on demand, at most one is pending at a time.</li>
+ *     <li>{@value #REVIEW_QUEUE_SUMMARY}: recomputes the figures of the identity verification review queue.</li>
+ * </ul>
+ * The user info cache is local to each instance, its warm-up is not a db-scheduler task but runs on every instance, once
+ * it is ready and then on {@code system.maintenance.userInfoCacheWarmUp.schedule}.
+ */
+@Slf4j
+@Getter
+public class AccountMaintenanceTasks {
+    public static final String ACCOUNT_PURGE = "account-purge";
+    public static final String ACCOUNT_PURGE_NOW = "account-purge-now";
+    public static final String REVIEW_QUEUE_SUMMARY = "review-queue-summary";
+    private static final String ON_DEMAND_INSTANCE = "on-demand";
+
+    private final AccountManagement accountManagement;
+    private final CachingIdPUserManagementAdapter userInfoCache;
+    private final SystemConfigurationProperties.Maintenance properties;
+
+    private final RecurringTask<Void> accountPurge;
+    private final OneTimeTask<Duration> accountPurgeNow;
+    private final RecurringTask<Void> reviewQueueSummary;
+
+    public AccountMaintenanceTasks(AccountManagement accountManagement,
+                                   CachingIdPUserManagementAdapter userInfoCache,
+                                   SystemConfigurationProperties.Maintenance properties) {
+        this.accountManagement = accountManagement;
+        this.userInfoCache = userInfoCache;
+        this.properties = properties;
+        this.accountPurge = Tasks.recurring(ACCOUNT_PURGE, Schedules.cron(properties.getAccountPurge().getSchedule()))
+                .defaultPriority(properties.getAccountPurge().getPriority())
+                .execute((instance, context) -> this.purge(properties.getAccountPurge().getRetention(), context));
+        this.accountPurgeNow = Tasks.oneTime(ACCOUNT_PURGE_NOW, Duration.class)
+                .defaultPriority(properties.getAccountPurge().getPriority())
+                .execute((instance, context) -> this.purge(instance.getData(), context));
+        this.reviewQueueSummary = Tasks.recurring(REVIEW_QUEUE_SUMMARY, Schedules.cron(properties.getReviewQueueSummary().getSchedule()))
+                .defaultPriority(properties.getReviewQueueSummary().getPriority())
+                .execute((instance, context) -> this.refreshReviewQueueSummary());
+    }
+
+    /**
+     * @param retention the accounts soft deleted for longer are purged, the configured retention when {@code null}
+     * @return the on demand purge, to be scheduled with {@code SchedulerClient.scheduleIfNotExists}
+     */
+    public TaskInstance<Duration> purgeNow(Duration retention) {
+        Duration effectiveRetention = retention == null ? this.properties.getAccountPurge().getRetention() : retention;
+        return this.accountPurgeNow.instance(ON_DEMAND_INSTANCE, effectiveRetention);
+    }
+
+    private void purge(Duration retention, ExecutionContext context) {
+        ZonedDateTime deletedBefore = ZonedDateTime.now().minus(retention);
+        int chunkSize = this.properties.getAccountPurge().getChunkSize();
+        long purged = 0;
+        int chunk;
+        do {
+            chunk = this.accountManagement.purgeDeletedAccounts(deletedBefore, chunkSize).get();
+            purged += chunk;
+        } while (chunk == chunkSize && !context.getSchedulerState().isShuttingDown());
+        log.info("Purged {} accounts deleted before {}", purged, deletedBefore);
+    }
+
+    /**
+     * Load the Auth0 user info of the recently active users in the cache of this instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${system.maintenance.userInfoCacheWarmUp.schedule:0 */10 * * * *}")
+    public void warmUpUserInfoCache() {
+        SystemConfigurationProperties.UserInfoCacheWarmUp warmUp = this.properties.getUserInfoCacheWarmUp();
+        this.accountManagement.findRecentlyActiveUserIds(warmUp.getUsers())
+                .flatMap(userIds -> this.userInfoCache.warmUp(userIds, warmUp.getConcurrency()))
+                .onSuccess(loaded -> log.info("Loaded {} users in the user info cache", loaded))
+                .onFailure(e -> log.warn("User info cache warm-up failed, retried on the next schedule. Reason: {}", e.getMessage()));
+    }
+
+    private void refreshReviewQueueSummary() {
+        this.accountManagement.refreshReviewQueueSummary()
+                .andThen(summary -> log.debug("Review queue summary refreshed {}", summary))
+                .get();
+    }
+}
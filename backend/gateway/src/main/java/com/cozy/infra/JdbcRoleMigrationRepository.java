@@ -0,0 +1,80 @@
+package com.cozy.infra;
+
+import com.cozy.shared.security.RoleMigration;
+import com.cozy.shared.security.RoleMigrationRepository;
+import io.vavr.control.Try;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Stores the role migrations in the system schema, next to the scheduler tables.
+ */
+@RequiredArgsConstructor
+public class JdbcRoleMigrationRepository implements RoleMigrationRepository {
+    private static final String UPSERT = """
+            INSERT INTO SYSTEM.ROLE_MIGRATION (id, operation, source_role, target_role, force, status, checkpoint,
+                                               processed_users, failed_users, last_error, created_at, updated_at)
+            VALUES (:id, :operation, :sourceRole, :targetRole, :force, :status, :checkpoint,
+                    :processedUsers, :failedUsers, :lastError, :createdAt, :updatedAt)
+            ON CONFLICT (id) DO UPDATE SET status          = excluded.status,
+                                           checkpoint      = excluded.checkpoint,
+                                           processed_users = excluded.processed_users,
+                                           failed_users    = excluded.failed_users,
+                                           last_error      = excluded.last_error,
+                                           updated_at      = excluded.updated_at
+            """;
+    private static final String SELECT_BY_ID = "SELECT * FROM SYSTEM.ROLE_MIGRATION WHERE id = :id";
+
+    private final JdbcClient jdbcClient;
+
+    @Override
+    public Try<RoleMigration> save(RoleMigration migration) {
+        return Try.of(() -> this.jdbcClient.sql(UPSERT)
+                        .param("id", migration.getId())
+                        .param("operation", migration.getOperation().name())
+                        .param("sourceRole", migration.getSourceRole())
+                        .param("targetRole", migration.getTargetRole())
+                        .param("force", migration.isForce())
+                        .param("status", migration.getStatus().name())
+                        .param("checkpoint", migration.getCheckpoint())
+                        .param("processedUsers", migration.getProcessedUsers())
+                        .param("failedUsers", migration.getFailedUsers())
+                        .param("lastError", migration.getLastError())
+                        .param("createdAt", Timestamp.from(migration.getCreatedAt()))
+                        .param("updatedAt", Timestamp.from(migration.getUpdatedAt()))
+                        .update())
+                .map(updated -> migration);
+    }
+
+    @Override
+    public Try<RoleMigration> findById(UUID id) {
+        return Try.of(() -> this.jdbcClient.sql(SELECT_BY_ID)
+                        .param("id", id)
+                        .query(JdbcRoleMigrationRepository::map)
+                        .optional()
+                        .orElseThrow(() -> new EntityNotFoundException("Role migration %s not found".formatted(id))));
+    }
+
+    private static RoleMigration map(ResultSet rs, int rowNum) throws SQLException {
+        return RoleMigration.builder()
+                .id(rs.getObject("id", UUID.class))
+                .operation(RoleMigration.Operation.valueOf(rs.getString("operation")))
+                .sourceRole(rs.getString("source_role"))
+                .targetRole(rs.getString("target_role"))
+                .force(rs.getBoolean("force"))
+                .status(RoleMigration.Status.valueOf(rs.getString("status")))
+                .checkpoint(rs.getString("checkpoint"))
+                .processedUsers(rs.getLong("processed_users"))
+                .failedUsers(rs.getLong("failed_users"))
+                .lastError(rs.getString("last_error"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.cozy.infra;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.jobrunr.storage.sql.common.DatabaseCreator;
+import org.jobrunr.storage.sql.postgres.PostgresStorageProvider;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Creates and upgrades the JobRunr tables with the migration scripts shipped with JobRunr, from the system changelog.
+ * <p>
+ * Running them from Liquibase rather than from the storage provider means they run once, under the Liquibase lock,
+ * however many instances start together. JobRunr only applies the scripts it has not applied yet, the changeset is
+ * meant to run on every startup so a JobRunr upgrade brings its tables along.
+ */
+@Slf4j
+@Setter
+public class JobRunrTablesChange implements CustomTaskChange {
+    /**
+     * Schema of the tables followed by a dot, must match {@code org.jobrunr.database.table-prefix}.
+     */
+    private String tablePrefix;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        try {
+            new DatabaseCreator(new SingleConnectionDataSource(connection.getUnderlyingConnection(), true), this.tablePrefix, PostgresStorageProvider.class)
+                    .runMigrations();
+            log.info("JobRunr tables up to date in {}", this.tablePrefix);
+        } catch (Exception e) {
+            throw new CustomChangeException("JobRunr migrations failed", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "JobRunr tables migrated";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,51 @@
+package com.cozy.infra;
+
+import com.cozy.shared.security.RoleMigration;
+import com.cozy.shared.security.RoleMigrationEngine;
+import com.cozy.shared.security.RoleMigrationRepository;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jobrunr.jobs.annotations.Job;
+import org.jobrunr.scheduling.JobScheduler;
+
+import java.util.UUID;
+
+/**
+ * Runs the role migrations as background jobs, the caller gets the migration id back right away and polls its state.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RoleMigrationJobs {
+    private final JobScheduler jobScheduler;
+    private final RoleMigrationRepository roleMigrationRepository;
+    private final RoleMigrationEngine roleMigrationEngine;
+
+    public Try<RoleMigration> submit(RoleMigration migration) {
+        return this.roleMigrationRepository.save(migration)
+                .andThen(saved -> this.enqueue(saved.getId()));
+    }
+
+    /**
+     * Start the migration again from its last checkpoint, e.g. after it failed or the instance running it was stopped.
+     */
+    public Try<RoleMigration> resume(UUID migrationId) {
+        return this.roleMigrationRepository.findById(migrationId)
+                .filter(migration -> !migration.isDone(), () -> new IllegalStateException("Role migration %s is already completed".formatted(migrationId)))
+                .andThen(migration -> this.enqueue(migration.getId()));
+    }
+
+    public Try<RoleMigration> findById(UUID migrationId) {
+        return this.roleMigrationRepository.findById(migrationId);
+    }
+
+    @Job(name = "Auth0 role migration %0", retries = 2)
+    public void run(UUID migrationId) {
+        this.roleMigrationEngine.run(migrationId).get();
+    }
+
+    private void enqueue(UUID migrationId) {
+        this.jobScheduler.<RoleMigrationJobs>enqueue(jobs -> jobs.run(migrationId));
+        log.info("Role migration {} enqueued", migrationId);
+    }
+}
@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset dtn1999:create_role_migration_table
+--comment State and checkpoint of the bulk Auth0 role migrations, an interrupted migration resumes from the stored checkpoint
+CREATE TABLE ROLE_MIGRATION
+(
+    id              uuid                     not null primary key,
+    operation       text                     not null,
+    source_role     text                     not null,
+    target_role     text,
+    force           BOOLEAN                  not null,
+    status          text                     not null,
+    checkpoint      text,
+    processed_users BIGINT                   not null default 0,
+    failed_users    BIGINT                   not null default 0,
+    last_error      text,
+    created_at      timestamp with time zone not null,
+    updated_at      timestamp with time zone not null
+);
+
+CREATE INDEX role_migration_status_idx ON ROLE_MIGRATION (status);
+
+--rollback DROP TABLE ROLE_MIGRATION;
@@ -0,0 +1,246 @@
+package com.cozy;
+
+import com.cozy.account.config.AccountServiceProperties;
+import com.cozy.account.core.AccountImporter;
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import com.cozy.account.core.port.out.AccountImportRepository;
+import com.cozy.account.core.port.out.AccountRepository;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs imports against the schema built by the migrations, with the repositories the importer bean is built from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ServiceModuleTest({CoreTestConfiguration.class})
+class AccountImporterTest {
+    private static final String CSV_HEADER = "userId,email,firstName,lastName,birthDate";
+    private static final LocalDate UNDER_AGE = LocalDate.now().minusYears(10);
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountImportRepository accountImportRepository;
+    @Autowired
+    private DbResetService dbResetService;
+    @TempDir
+    private Path stagingDirectory;
+
+    @BeforeEach
+    void setUp() {
+        this.dbResetService.reset("account_service.account_import_error", "account_service.account_import",
+                "account_service.account", "account_service.profile", "account_service.personal_information");
+    }
+
+    @Test
+    void testImportCsv() {
+        Account existing = AccountRepositoryTest.newAccount();
+        existing.setUserId("auth0|existing");
+        existing.getPersonalInformation().setEmail("existing@cozy.com");
+        this.accountRepository.save(existing).get();
+        AccountImporter importer = this.importer(10, 100);
+
+        AccountImport completed = this.runImport(importer, AccountImport.Format.CSV, csv(
+                "auth0|1,one@cozy.com,John,Doe,1990-01-01",
+                "auth0|1,other@cozy.com,John,Doe,1990-01-01",
+                "auth0|2,one@cozy.com,John,Doe,1990-01-01",
+                "auth0|existing,new@cozy.com,John,Doe,1990-01-01",
+                "auth0|3,existing@cozy.com,John,Doe,1990-01-01",
+                "auth0|4,not-an-email,John,Doe,1990-01-01",
+                "auth0|5,five@cozy.com,John,Doe,%s".formatted(UNDER_AGE),
+                "auth0|6,six@cozy.com,John,Doe,yesterday",
+                "auth0|7,seven@cozy.com,John,Doe,1990-01-01"
+        )).get();
+
+        assertEquals(AccountImport.Status.COMPLETED, completed.getStatus());
+        assertEquals(9, completed.getCheckpoint());
+        assertEquals(2, completed.getImportedRows());
+        assertEquals(4, completed.getSkippedRows());
+        assertEquals(3, completed.getFailedRows());
+        assertFalse(Files.exists(Path.of(completed.getSource())));
+        assertEquals("one@cozy.com", this.accountRepository.findByUserId("auth0|1").get().getPersonalInformation().getEmail());
+        assertEquals(Account.Role.GUEST, this.accountRepository.findByUserId("auth0|7").get().getRole());
+
+        List<AccountImportError> errors = this.errors(completed);
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L, 8L), errors.stream().map(AccountImportError::row).toList());
+        // Within the chunk, the first row wins
+        assertEquals("An account already exists for user id auth0|1", errors.get(0).message());
+        assertEquals("An account already exists for email one@cozy.com", errors.get(1).message());
+        // Against the stored accounts
+        assertEquals("An account already exists for user id auth0|existing", errors.get(2).message());
+        assertEquals("An account already exists for email existing@cozy.com", errors.get(3).message());
+        assertEquals("auth0|4", errors.get(4).userId());
+        assertTrue(errors.get(4).message().startsWith("email "));
+        assertEquals("User must be at least 18 years old", errors.get(5).message());
+        // Unreadable, the row never maps to a user
+        assertNull(errors.get(6).userId());
+    }
+
+    @Test
+    void testImportNdjson() {
+        AccountImporter importer = this.importer(2, 100);
+
+        AccountImport completed = this.runImport(importer, AccountImport.Format.NDJSON, ndjson(
+                user("auth0|1", "one@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|2", "two@cozy.com", "Doe", "1990-01-01"),
+                // Imported by the previous chunk
+                user("auth0|1", "three@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|4", "four@cozy.com", "", "1990-01-01"),
+                user("auth0|5", "five@cozy.com", "Doe", UNDER_AGE.toString()),
+                user("auth0|6", "six@cozy.com", "Doe", "yesterday"),
+                user("auth0|7", "seven@cozy.com", "Doe", "1990-01-01")
+        )).get();
+
+        assertEquals(AccountImport.Status.COMPLETED, completed.getStatus());
+        assertEquals(7, completed.getCheckpoint());
+        assertEquals(3, completed.getImportedRows());
+        assertEquals(1, completed.getSkippedRows());
+        assertEquals(3, completed.getFailedRows());
+
+        List<AccountImportError> errors = this.errors(completed);
+        assertEquals(List.of(3L, 4L, 5L, 6L), errors.stream().map(AccountImportError::row).toList());
+        assertEquals("An account already exists for user id auth0|1", errors.get(0).message());
+        assertTrue(errors.get(1).message().startsWith("lastName "));
+        assertEquals("User must be at least 18 years old", errors.get(2).message());
+        assertNull(errors.get(3).userId());
+    }
+
+    @Test
+    void testParseErrorFailsImportAndRunResumesAfterCheckpoint() throws IOException {
+        AccountImporter importer = this.importer(2, 100);
+        AccountImport created = importer.create(AccountImport.Format.NDJSON, content(ndjson(
+                user("auth0|1", "one@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|2", "two@cozy.com", "Doe", "1990-01-01"),
+                "not json",
+                user("auth0|4", "four@cozy.com", "Doe", "1990-01-01")
+        ))).get();
+
+        assertTrue(importer.run(created.getId()).isFailure());
+
+        AccountImport failed = importer.findById(created.getId()).get();
+        assertEquals(AccountImport.Status.FAILED, failed.getStatus());
+        assertNotNull(failed.getLastError());
+        assertEquals(2, failed.getCheckpoint());
+        assertEquals(2, failed.getImportedRows());
+
+        // The staged file is fixed in place, the rows before the checkpoint are not read again as duplicates
+        Files.writeString(Path.of(failed.getSource()), ndjson(
+                user("auth0|1", "one@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|2", "two@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|3", "three@cozy.com", "Doe", "1990-01-01"),
+                user("auth0|4", "four@cozy.com", "Doe", "1990-01-01")
+        ));
+        AccountImport completed = importer.run(created.getId()).get();
+
+        assertEquals(AccountImport.Status.COMPLETED, completed.getStatus());
+        assertEquals(4, completed.getCheckpoint());
+        assertEquals(4, completed.getImportedRows());
+        assertEquals(0, completed.getSkippedRows());
+        assertEquals(0, completed.getFailedRows());
+        assertTrue(this.accountRepository.findByUserId("auth0|3").isSuccess());
+    }
+
+    @Test
+    void testFailedBatchInsertFallsBackToRowByRow() {
+        AccountRepository repository = mock(AccountRepository.class, delegatesTo(this.accountRepository));
+        doReturn(Try.failure(new IllegalStateException("Batch insert failed"))).when(repository).saveAll(anyList());
+        doAnswer(invocation -> {
+            Account account = invocation.getArgument(0);
+            // Taken by a concurrent registration after the duplicate check
+            return "taken@cozy.com".equals(account.getPersonalInformation().getEmail())
+                    ? Try.failure(new IllegalStateException("Email already taken"))
+                    : this.accountRepository.save(account);
+        }).when(repository).save(any(Account.class));
+        AccountImporter importer = new AccountImporter(repository, this.accountImportRepository, globalSettings(), this.imports(10, 100));
+
+        AccountImport completed = this.runImport(importer, AccountImport.Format.CSV, csv(
+                "auth0|1,one@cozy.com,John,Doe,1990-01-01",
+                "auth0|2,taken@cozy.com,John,Doe,1990-01-01",
+                "auth0|3,three@cozy.com,John,Doe,1990-01-01"
+        )).get();
+
+        assertEquals(2, completed.getImportedRows());
+        assertEquals(1, completed.getFailedRows());
+        assertEquals(List.of(new AccountImportError(2, "auth0|2", "Email already taken")), this.errors(completed));
+        assertTrue(this.accountRepository.findByUserId("auth0|1").isSuccess());
+        assertTrue(this.accountRepository.findByUserId("auth0|3").isSuccess());
+    }
+
+    @Test
+    void testErrorReportIsCapped() {
+        AccountImporter importer = this.importer(2, 3);
+
+        AccountImport completed = this.runImport(importer, AccountImport.Format.CSV, csv(
+                "auth0|1,one@cozy.com,John,Doe,%s".formatted(UNDER_AGE),
+                "auth0|2,two@cozy.com,John,Doe,%s".formatted(UNDER_AGE),
+                "auth0|3,three@cozy.com,John,Doe,%s".formatted(UNDER_AGE),
+                "auth0|4,four@cozy.com,John,Doe,%s".formatted(UNDER_AGE),
+                "auth0|5,five@cozy.com,John,Doe,%s".formatted(UNDER_AGE)
+        )).get();
+
+        assertEquals(5, completed.getFailedRows());
+        assertEquals(List.of(1L, 2L, 3L), this.errors(completed).stream().map(AccountImportError::row).toList());
+    }
+
+    private Try<AccountImport> runImport(AccountImporter importer, AccountImport.Format format, String content) {
+        return importer.create(format, content(content))
+                .flatMap(created -> importer.run(created.getId()));
+    }
+
+    private List<AccountImportError> errors(AccountImport accountImport) {
+        return this.accountImportRepository.findErrors(accountImport.getId(), 0, 100).get();
+    }
+
+    private AccountImporter importer(int chunkSize, int maxReportedErrors) {
+        return new AccountImporter(this.accountRepository, this.accountImportRepository, globalSettings(), this.imports(chunkSize, maxReportedErrors));
+    }
+
+    private AccountServiceProperties.Imports imports(int chunkSize, int maxReportedErrors) {
+        return new AccountServiceProperties.Imports(this.stagingDirectory.toString(), chunkSize, maxReportedErrors);
+    }
+
+    private static AccountServiceProperties.GlobalSettings globalSettings() {
+        return new AccountServiceProperties.GlobalSettings("EUR", "en", "Europe/Berlin");
+    }
+
+    private static String csv(String... rows) {
+        return "%s\n%s\n".formatted(CSV_HEADER, String.join("\n", rows));
+    }
+
+    private static String ndjson(String... rows) {
+        return "%s\n".formatted(String.join("\n", rows));
+    }
+
+    private static String user(String userId, String email, String lastName, String birthDate) {
+        return """
+                {"userId": "%s", "email": "%s", "firstName": "John", "lastName": "%s", "birthDate": "%s"}""".formatted(userId, email, lastName, birthDate);
+    }
+
+    private static ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.cozy;
+
+import com.cozy.account.core.model.entity.*;
+import com.cozy.account.core.port.out.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registration throughput under a signup spike and a bulk import. The accounts are written the way
+ * {@code AccountManager.setupAccount} writes them, without the Auth0 round-trip.
+ * <p>
+ * Excluded from {@code test}, run it with {@code ./gradlew :gateway:loadTest} and compare the logged rates between two
+ * revisions. Only {@link AccountRepository#save} is used so that the test runs unchanged on either side of the id
+ * generation change, the import saves each chunk in one transaction.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("test")
+@ServiceModuleTest({CoreTestConfiguration.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountRegistrationLoadTest {
+    private static final int ACCOUNTS = 5_000;
+    private static final int CONCURRENT_REGISTRATIONS = 32;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DbResetService dbResetService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        this.dbResetService.reset("account_service.account", "account_service.profile", "account_service.personal_information");
+    }
+
+    @Test
+    void testSignupSpike() throws Exception {
+        Statistics statistics = this.statistics();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REGISTRATIONS)) {
+            List<Future<Account>> registrations = IntStream.range(0, ACCOUNTS)
+                    .mapToObj(i -> executor.submit(() -> this.accountRepository.save(newAccount()).get()))
+                    .toList();
+            for (Future<Account> registration : registrations) {
+                registration.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        log.info("Signup spike: {} registrations in {} ms, {} registrations/s, {} statements per registration",
+                ACCOUNTS, elapsed.toMillis(), rate(ACCOUNTS, elapsed), statistics.getPrepareStatementCount() / (double) ACCOUNTS);
+        assertEquals(ACCOUNTS, this.accountRepository.findAll().get().size());
+    }
+
+    @Test
+    void testBulkImport() {
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        Statistics statistics = this.statistics();
+        long start = System.nanoTime();
+        for (int imported = 0; imported < ACCOUNTS; imported += IMPORT_CHUNK_SIZE) {
+            List<Account> chunk = IntStream.range(imported, Math.min(ACCOUNTS, imported + IMPORT_CHUNK_SIZE))
+                    .mapToObj(i -> newAccount())
+                    .toList();
+            transaction.executeWithoutResult(status -> chunk.forEach(account -> this.accountRepository.save(account).get()));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long statements = statistics.getPrepareStatementCount();
+
+        log.info("Bulk import: {} accounts in {} ms, {} accounts/s, {} statements", ACCOUNTS, elapsed.toMillis(), rate(ACCOUNTS, elapsed), statements);
+        // One insert per row and table would be three statements per account
+        assertTrue(statements < ACCOUNTS, "Inserts are not batched, %s statements for %s accounts".formatted(statements, ACCOUNTS));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static long rate(int count, Duration elapsed) {
+        return count * 1_000L / Math.max(1, elapsed.toMillis());
+    }
+
+    private static Account newAccount() {
+        Profile profile = Profile.builder()
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .showPreviousBookings(false)
+                .isEmailVerified(true)
+                .isPhoneNumberVerified(false)
+                .isGovernmentIdVerified(false)
+                .build();
+        PersonalInformation personalInformation = PersonalInformation.builder()
+                .email("%s@cozy.com".formatted(UUID.randomUUID()))
+                .legalName(new PersonalInformation.LegalName("John", "Doe"))
+                .build();
+        return Account.builder()
+                .userId("auth0|%s".formatted(UUID.randomUUID()))
+                .role(Account.Role.GUEST)
+                .status(AccountStatus.ACTIVE)
+                .profile(profile)
+                .personalInformation(personalInformation)
+                .settings(new Settings(new Settings.GlobalSettings("en", "EUR", "Europe/Berlin")))
+                .build();
+    }
+}
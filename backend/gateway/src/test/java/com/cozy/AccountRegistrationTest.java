@@ -0,0 +1,83 @@
+package com.cozy;
+
+import com.auth0.json.mgmt.roles.Role;
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.payload.internal.field.RegisterUserRequest;
+import com.cozy.account.core.port.in.AccountManagement;
+import com.cozy.account.core.port.out.AccountRepository;
+import com.cozy.shared.security.ManagementApiAdapter;
+import com.cozy.shared.security.UserInfo;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registers accounts end to end against the schema built by the migrations, Auth0 aside.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ServiceModuleTest({CoreTestConfiguration.class})
+class AccountRegistrationTest {
+    @Autowired
+    private AccountManagement accountManagement;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private ManagementApiAdapter managementApiAdapter;
+    @Autowired
+    private DbResetService dbResetService;
+
+    @BeforeEach
+    void setUp() {
+        this.dbResetService.reset("account_service.account", "account_service.profile", "account_service.personal_information");
+        Role guest = new Role();
+        guest.setName(Account.Role.GUEST.getName());
+        when(this.managementApiAdapter.getUserInfo(anyString()))
+                .thenAnswer(invocation -> Try.success(UserInfo.builder().sub(invocation.getArgument(0)).emailVerified(true).build()));
+        when(this.managementApiAdapter.findAllRoleByUserId(anyString())).thenReturn(Try.success(Set.of()));
+        when(this.managementApiAdapter.findRoleByName(anyString())).thenReturn(Try.success(guest));
+        when(this.managementApiAdapter.assignRoleToUser(anyString(), any())).thenReturn(Try.success(null));
+    }
+
+    @Test
+    void testRegister() {
+        Account registered = this.accountManagement.register("auth0|registration", request("john.doe@cozy.com")).get();
+
+        Account stored = this.accountRepository.findByUserId("auth0|registration").get();
+        assertEquals(registered.getId(), stored.getId());
+        assertNotNull(stored.getProfile().getId());
+        assertNotNull(stored.getPersonalInformation().getId());
+        assertEquals("john.doe@cozy.com", stored.getPersonalInformation().getEmail());
+        assertEquals(Account.Role.GUEST, stored.getRole());
+    }
+
+    @Test
+    void testRegisterAllocatesDistinctIds() {
+        Account first = this.accountManagement.register("auth0|first", request("first@cozy.com")).get();
+        Account second = this.accountManagement.register("auth0|second", request("second@cozy.com")).get();
+
+        assertNotEquals(first.getId(), second.getId());
+        assertNotEquals(first.getPersonalInformation().getId(), second.getPersonalInformation().getId());
+        assertNotEquals(first.getProfile().getId(), second.getProfile().getId());
+    }
+
+    private static RegisterUserRequest request(String email) {
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setEmail(email);
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setBirthDate(LocalDate.of(1990, 1, 1));
+        return request;
+    }
+}
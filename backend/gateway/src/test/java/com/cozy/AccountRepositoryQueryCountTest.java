@@ -0,0 +1,128 @@
+package com.cozy;
+
+import com.cozy.account.core.model.entity.*;
+import com.cozy.account.core.port.out.AccountRepository;
+import com.cozy.shared.db.CursorPageRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards against N+1 selects: loading accounts must cost the same number of statements whatever the number of rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ServiceModuleTest({CoreTestConfiguration.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountRepositoryQueryCountTest {
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DbResetService dbResetService;
+
+    @BeforeEach
+    void setUp() {
+        this.dbResetService.reset("account_service.account", "account_service.profile", "account_service.personal_information");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void testFindAllQueryCountIsConstant(int numberOfAccounts) {
+        this.createAccounts(numberOfAccounts);
+        Statistics statistics = this.statistics();
+
+        List<Account> accounts = this.accountRepository.findAll().get();
+        touchAssociations(accounts);
+
+        assertEquals(numberOfAccounts, accounts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void testFindAllByIdsQueryCountIsConstant(int numberOfAccounts) {
+        Set<Long> accountIds = this.createAccounts(numberOfAccounts);
+        Statistics statistics = this.statistics();
+
+        List<Account> accounts = this.accountRepository.findAll(accountIds).get();
+        touchAssociations(accounts);
+
+        assertEquals(numberOfAccounts, accounts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void testFindPageQueryCountIsConstant(int numberOfAccounts) {
+        this.createAccounts(numberOfAccounts);
+        Statistics statistics = this.statistics();
+
+        List<Account> accounts = this.accountRepository.findAll(CursorPageRequest.first(CursorPageRequest.MAX_LIMIT))
+                .get()
+                .getData();
+        touchAssociations(accounts);
+
+        assertEquals(numberOfAccounts, accounts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static void touchAssociations(List<Account> accounts) {
+        accounts.forEach(account -> {
+            account.getPersonalInformation().getEmail();
+            account.getProfile().getAbout();
+        });
+    }
+
+    private Set<Long> createAccounts(int numberOfAccounts) {
+        return IntStream.range(0, numberOfAccounts)
+                .mapToObj(i -> {
+                    String userId = "auth0|%s".formatted(UUID.randomUUID());
+                    Profile profile = Profile.builder()
+                            .birthDate(LocalDate.of(1990, 1, 1))
+                            .showPreviousBookings(false)
+                            .isEmailVerified(true)
+                            .isPhoneNumberVerified(false)
+                            .isGovernmentIdVerified(false)
+                            .build();
+                    PersonalInformation personalInformation = PersonalInformation.builder()
+                            .email("%s@cozy.com".formatted(UUID.randomUUID()))
+                            .legalName(new PersonalInformation.LegalName("John", "Doe"))
+                            .build();
+                    Settings settings = new Settings(new Settings.GlobalSettings("en", "EUR", "Europe/Berlin"));
+                    return Account.builder()
+                            .userId(userId)
+                            .role(Account.Role.GUEST)
+                            .status(AccountStatus.ACTIVE)
+                            .profile(profile)
+                            .personalInformation(personalInformation)
+                            .settings(settings)
+                            .build();
+                })
+                .map(account -> this.accountRepository.save(account).get().getId())
+                .collect(Collectors.toSet());
+    }
+}
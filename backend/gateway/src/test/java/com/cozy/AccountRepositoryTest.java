@@ -0,0 +1,181 @@
+package com.cozy;
+
+import com.cozy.account.core.model.entity.*;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import com.cozy.account.core.port.out.AccountRepository;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the repository through its Spring proxy, outside any test transaction, the way the account manager calls it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ServiceModuleTest({CoreTestConfiguration.class})
+class AccountRepositoryTest {
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DbResetService dbResetService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.dbResetService.reset("account_service.account", "account_service.profile", "account_service.personal_information");
+    }
+
+    @Test
+    void testDeleteById() {
+        Account account = this.accountRepository.save(newAccount()).get();
+
+        assertTrue(this.accountRepository.deleteById(account.getId()).isSuccess());
+        assertTrue(this.accountRepository.findById(account.getId()).get().isDeleted());
+    }
+
+    @Test
+    void testDelete() {
+        Account account = this.accountRepository.save(newAccount()).get();
+
+        assertTrue(this.accountRepository.delete(account).isSuccess());
+        assertTrue(this.accountRepository.findById(account.getId()).get().isDeleted());
+    }
+
+    @Test
+    void testUpdateAllRollsBackEveryChunkWhenOneFails() {
+        Long first = this.accountRepository.save(newAccount()).get().getId();
+        Long second = this.accountRepository.save(newAccount()).get().getId();
+        Long third = this.accountRepository.save(newAccount()).get().getId();
+        Map<Long, Consumer<Account>> updates = new LinkedHashMap<>();
+        updates.put(first, account -> account.setStatus(AccountStatus.SUSPENDED));
+        updates.put(second, account -> account.setStatus(AccountStatus.SUSPENDED));
+        updates.put(third, account -> {
+            throw new IllegalStateException("Update failed");
+        });
+
+        // One account per chunk, the first two chunks are flushed before the third one fails
+        Try<Set<Long>> updated = this.accountRepository.updateAll(updates, 1);
+
+        assertTrue(updated.isFailure());
+        assertEquals(AccountStatus.ACTIVE, this.accountRepository.findById(first).get().getStatus());
+        assertEquals(AccountStatus.ACTIVE, this.accountRepository.findById(second).get().getStatus());
+    }
+
+    @Test
+    void testPurgeDeletedKeepsSuspendedAccounts() {
+        Account deleted = newAccount();
+        deleted.setDeleted(true);
+        deleted.setStatus(AccountStatus.DELETED);
+        Long deletedId = this.accountRepository.save(deleted).get().getId();
+        Account suspended = newAccount();
+        suspended.setDeleted(true);
+        suspended.setStatus(AccountStatus.SUSPENDED);
+        Long suspendedId = this.accountRepository.save(suspended).get().getId();
+
+        List<Long> purged = this.accountRepository.purgeDeleted(ZonedDateTime.now().plusDays(1), 10).get();
+
+        assertEquals(List.of(deletedId), purged);
+        assertTrue(this.accountRepository.findById(suspendedId).isSuccess());
+    }
+
+    @Test
+    void testPatchGlobalSettingsOfAccountWithoutSettings() {
+        Account account = newAccount();
+        account.setSettings(null);
+        Long id = this.accountRepository.save(account).get().getId();
+
+        assertTrue(this.accountRepository.patchGlobalSettings(id, Map.of(Settings.GlobalSettings.DEFAULT_CURRENCY, "USD")).isSuccess());
+        assertEquals("USD", this.accountRepository.findById(id).get().getSettings().getGlobal().getDefaultCurrency());
+    }
+
+    @Test
+    void testFindSummaryByIdReadsPastTheSecondLevelCache() {
+        Long id = this.accountRepository.save(newAccount()).get().getId();
+        this.accountRepository.findById(id).get();
+
+        // Suspended by another node, the local cache entry is now stale
+        this.jdbcTemplate.update("UPDATE account_service.account SET status = 'SUSPENDED' WHERE id = ?", id);
+
+        assertEquals(AccountStatus.SUSPENDED, this.accountRepository.findSummaryById(id).get().getStatus());
+    }
+
+    @Test
+    void testFindIdentityVerificationsPagesThroughEqualSubmissionTimes() {
+        ZonedDateTime submittedAt = ZonedDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        Long first = this.saveWithGovernmentId(submittedAt.minusMinutes(1), PersonalInformation.GovernmentIdStatus.PENDING, false);
+        Long second = this.saveWithGovernmentId(submittedAt, PersonalInformation.GovernmentIdStatus.PENDING, false);
+        Long third = this.saveWithGovernmentId(submittedAt, PersonalInformation.GovernmentIdStatus.PENDING, false);
+        Long fourth = this.saveWithGovernmentId(submittedAt, PersonalInformation.GovernmentIdStatus.PENDING, false);
+        this.saveWithGovernmentId(submittedAt, PersonalInformation.GovernmentIdStatus.APPROVED, false);
+        this.saveWithGovernmentId(submittedAt, PersonalInformation.GovernmentIdStatus.PENDING, true);
+
+        CursorPage<IdentityVerificationProjection> firstPage = this.accountRepository
+                .findIdentityVerifications(PersonalInformation.GovernmentIdStatus.PENDING, CursorPageRequest.first(2)).get();
+        // The page ends between two government ids submitted at the same instant
+        CursorPage<IdentityVerificationProjection> secondPage = this.accountRepository
+                .findIdentityVerifications(PersonalInformation.GovernmentIdStatus.PENDING, CursorPageRequest.of(firstPage.getNextCursor(), 2)).get();
+
+        assertEquals(List.of(first, second), firstPage.getData().stream().map(IdentityVerificationProjection::accountId).toList());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(List.of(third, fourth), secondPage.getData().stream().map(IdentityVerificationProjection::accountId).toList());
+        assertFalse(secondPage.isHasNext());
+        // Read back from the column generated out of the epoch seconds Jackson writes
+        assertEquals(submittedAt.toInstant(), secondPage.getData().getFirst().submittedAt().toInstant());
+    }
+
+    private Long saveWithGovernmentId(ZonedDateTime submittedAt, PersonalInformation.GovernmentIdStatus status, boolean deleted) {
+        Account account = newAccount();
+        account.setDeleted(deleted);
+        account.getPersonalInformation().setGovernmentId(PersonalInformation.GovernmentId.builder()
+                .idFrontSideImage("https://cozy.com/front.jpg")
+                .idBackSideImage("https://cozy.com/back.jpg")
+                .selfieWithIdImage("https://cozy.com/selfie.jpg")
+                .createdAt(submittedAt)
+                .status(status)
+                .build());
+        return this.accountRepository.save(account).get().getId();
+    }
+
+    static Account newAccount() {
+        Profile profile = Profile.builder()
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .showPreviousBookings(false)
+                .isEmailVerified(true)
+                .isPhoneNumberVerified(false)
+                .isGovernmentIdVerified(false)
+                .build();
+        PersonalInformation personalInformation = PersonalInformation.builder()
+                .email("%s@cozy.com".formatted(UUID.randomUUID()))
+                .legalName(new PersonalInformation.LegalName("John", "Doe"))
+                .build();
+        return Account.builder()
+                .userId("auth0|%s".formatted(UUID.randomUUID()))
+                .role(Account.Role.GUEST)
+                .status(AccountStatus.ACTIVE)
+                .profile(profile)
+                .personalInformation(personalInformation)
+                .settings(new Settings(new Settings.GlobalSettings("en", "EUR", "Europe/Berlin")))
+                .build();
+    }
+}
@@ -7,6 +7,7 @@ package com.cozy;
 import com.auth0.client.auth.AuthAPI;
 import com.cozy.config.MasterConfiguration;
 import com.cozy.shared.security.ManagementApiAdapter;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -30,8 +31,8 @@ public class CoreTestConfiguration {
     }
 
     @Bean
-    public DbResetService dbResetService(JdbcTemplate jdbcTemplate) {
-        return new DbResetService(jdbcTemplate);
+    public DbResetService dbResetService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        return new DbResetService(jdbcTemplate, entityManagerFactory);
     }
 
 }
@@ -1,5 +1,6 @@
 package com.cozy;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 
@@ -10,9 +11,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 public class DbResetService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public DbResetService(JdbcTemplate jdbcTemplate) {
+    public DbResetService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
         this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     /**
@@ -27,5 +30,7 @@ public class DbResetService {
             // Enable triggers
             jdbcTemplate.execute("ALTER TABLE %s ENABLE TRIGGER ALL".formatted(table));
         }
+        // The rows were deleted behind Hibernate's back
+        entityManagerFactory.getCache().evictAll();
     }
 }
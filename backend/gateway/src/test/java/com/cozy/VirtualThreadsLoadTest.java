@@ -0,0 +1,309 @@
+package com.cozy;
+
+import com.cozy.config.MasterConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and p99 of {@code POST /accounts/register} over HTTP, with the server started once with
+ * {@code spring.threads.virtual.enabled=false} and once with {@code true}. Each registration goes through Tomcat, the
+ * Auth0 SDK, i.e. the token, user, role lookup and role assignment calls, and JPA. Auth0 is a local HTTP stub answering
+ * after {@link #AUTH0_LATENCY}.
+ * <p>
+ * Excluded from {@code test}, run it with {@code ./gradlew :gateway:loadTest}, both figures are logged at the end
+ * along with the virtual threads pinned longer than {@code system.virtualThreads.pinningThreshold}.
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("test")
+@ServiceModuleTest({VirtualThreadsLoadTest.LoadTestConfiguration.class})
+class VirtualThreadsLoadTest {
+    private static final int WARM_UP_REQUESTS = 500;
+    private static final int REQUESTS = 5_000;
+    // Above Tomcat's 200 platform threads, the requests beyond queue in the platform mode
+    private static final int IN_FLIGHT = 500;
+    private static final Duration AUTH0_LATENCY = Duration.ofMillis(50);
+    private static final Auth0Stub AUTH0 = Auth0Stub.start(AUTH0_LATENCY);
+    private static final Map<String, String> RESULTS = new ConcurrentHashMap<>();
+
+    @DynamicPropertySource
+    static void auth0Properties(DynamicPropertyRegistry registry) {
+        registry.add("auth0.domain", AUTH0::baseUrl);
+        registry.add("auth0.clientId", () -> "load-test");
+        registry.add("auth0.clientSecret", () -> "load-test");
+    }
+
+    @AfterAll
+    static void report() {
+        RESULTS.forEach((mode, result) -> log.info("{}: {}", mode, result));
+        AUTH0.stop();
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+        @LocalServerPort
+        private int port;
+        @Autowired
+        private DbResetService dbResetService;
+
+        @BeforeEach
+        void setUp() {
+            resetAccounts(this.dbResetService);
+        }
+
+        @Test
+        void testRegistrationLoad() throws Exception {
+            register(this.port, WARM_UP_REQUESTS);
+            Result result = register(this.port, REQUESTS);
+
+            RESULTS.put("Platform threads", result.toString());
+            assertEquals(0, result.failures());
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+        @LocalServerPort
+        private int port;
+        @Autowired
+        private DbResetService dbResetService;
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @BeforeEach
+        void setUp() {
+            resetAccounts(this.dbResetService);
+        }
+
+        @Test
+        void testRegistrationLoad() throws Exception {
+            register(this.port, WARM_UP_REQUESTS);
+            double pinnedBefore = this.pinned();
+            Result result = register(this.port, REQUESTS);
+
+            RESULTS.put("Virtual threads", "%s, %s pinnings".formatted(result, (long) (this.pinned() - pinnedBefore)));
+            assertEquals(0, result.failures());
+        }
+
+        private double pinned() {
+            FunctionCounter counter = this.meterRegistry.find("jvm.threads.virtual.pinned").functionCounter();
+            return Objects.isNull(counter) ? 0 : counter.count();
+        }
+    }
+
+    private static void resetAccounts(DbResetService dbResetService) {
+        dbResetService.reset("account_service.account", "account_service.profile", "account_service.personal_information");
+    }
+
+    /**
+     * Registers a new user per request, at most {@link #IN_FLIGHT} requests at once.
+     */
+    private static Result register(int port, int requests) throws Exception {
+        URI uri = URI.create("http://localhost:%s/api/accounts/register".formatted(port));
+        String body = """
+                {"email": "%s@cozy.com", "firstName": "John", "lastName": "Doe", "birthDate": "1990-01-01", "newsletter": false}
+                """;
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build()) {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                inFlight.acquire();
+                futures.add(clients.submit(() -> {
+                    String userId = "auth0|%s".formatted(UUID.randomUUID());
+                    HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                            .header("Authorization", "Bearer " + userId)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.formatted(UUID.randomUUID())))
+                            .build();
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 201) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[request] = System.nanoTime() - requestStart;
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Arrays.sort(latencies);
+        return new Result(
+                requests * 1_000L / Math.max(1, elapsed.toMillis()),
+                Duration.ofNanos(latencies[(int) Math.ceil(requests * 0.99) - 1]),
+                failures.get()
+        );
+    }
+
+    private record Result(long throughput, Duration p99, int failures) {
+        @Override
+        public String toString() {
+            return "%s requests/s, p99 %s ms, %s failures".formatted(this.throughput, this.p99.toMillis(), this.failures);
+        }
+    }
+
+    @TestConfiguration
+    @Import({MasterConfiguration.class})
+    static class LoadTestConfiguration {
+
+        /**
+         * Accepts any bearer token as the id of the authenticated user, there is no authorization server in tests.
+         */
+        @Bean
+        public JwtDecoder jwtDecoder() {
+            return token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject(token)
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .claim("permissions", List.of())
+                    .claim("https://cozy.com/roles", List.of())
+                    .build();
+        }
+
+        @Bean
+        public DbResetService dbResetService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+            return new DbResetService(jdbcTemplate, entityManagerFactory);
+        }
+    }
+
+    /**
+     * Answers the Auth0 calls made by a registration after a fixed latency, on one virtual thread per exchange so that
+     * the stub itself never queues.
+     */
+    static final class Auth0Stub {
+        private static final String TOKEN = """
+                {"access_token": "load-test", "token_type": "Bearer", "expires_in": 86400}
+                """;
+        private static final String ROLES = """
+                [{"id": "rol_guest", "name": "Guest"}, {"id": "rol_host", "name": "Host"}, {"id": "rol_admin", "name": "Admin"}]
+                """;
+        private static final String USER = """
+                {"user_id": "%s", "email": "john.doe@cozy.com", "email_verified": true, "picture": "https://cozy.com/john.png"}
+                """;
+
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Duration latency;
+
+        private Auth0Stub(Duration latency) throws IOException {
+            this.latency = latency;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            this.server.setExecutor(this.executor);
+            this.server.createContext("/", this::handle);
+            this.server.start();
+        }
+
+        static Auth0Stub start(Duration latency) {
+            try {
+                return new Auth0Stub(latency);
+            } catch (IOException e) {
+                throw new IllegalStateException("Auth0 stub could not start", e);
+            }
+        }
+
+        String baseUrl() {
+            return "http://localhost:%s".formatted(this.server.getAddress().getPort());
+        }
+
+        void stop() {
+            this.server.stop(0);
+            this.executor.close();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                TimeUnit.NANOSECONDS.sleep(this.latency.toNanos());
+                String path = exchange.getRequestURI().getPath();
+                String method = exchange.getRequestMethod();
+                if (path.equals("/oauth/token")) {
+                    respond(exchange, 200, TOKEN);
+                } else if (path.equals("/api/v2/roles")) {
+                    respond(exchange, 200, ROLES);
+                } else if (path.startsWith("/api/v2/users/") && path.endsWith("/roles")) {
+                    if (method.equals("GET")) {
+                        respond(exchange, 200, "[]");
+                    } else {
+                        exchange.sendResponseHeaders(204, -1);
+                    }
+                } else if (path.startsWith("/api/v2/users/")) {
+                    respond(exchange, 200, USER.formatted(path.substring("/api/v2/users/".length())));
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+}
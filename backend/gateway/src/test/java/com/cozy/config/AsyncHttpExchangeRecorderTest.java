@@ -0,0 +1,143 @@
+package com.cozy.config;
+
+import com.cozy.shared.SystemConfigurationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.web.exchanges.HttpExchange;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncHttpExchangeRecorderTest {
+
+    @Test
+    void testExchangesArePolledInOfferOrder() {
+        AsyncHttpExchangeRecorder.ExchangeRing ring = new AsyncHttpExchangeRecorder.ExchangeRing(4);
+        List<HttpExchange> exchanges = List.of(exchange("/a"), exchange("/b"), exchange("/c"));
+
+        exchanges.forEach(ring::offer);
+
+        assertEquals(3, ring.size());
+        assertSame(exchanges.get(0), ring.poll());
+        assertSame(exchanges.get(1), ring.poll());
+        assertSame(exchanges.get(2), ring.poll());
+        assertNull(ring.poll());
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void testFullRingRejectsUntilPolled() {
+        // Rounded up to four slots
+        AsyncHttpExchangeRecorder.ExchangeRing ring = new AsyncHttpExchangeRecorder.ExchangeRing(3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(exchange("/" + i)));
+        }
+
+        assertFalse(ring.offer(exchange("/rejected")));
+        assertEquals("/0", ring.poll().getRequest().getUri().getPath());
+        assertTrue(ring.offer(exchange("/4")));
+        assertEquals(4, ring.size());
+    }
+
+    @Test
+    void testSlotsAreReusedAfterWrapAround() {
+        AsyncHttpExchangeRecorder.ExchangeRing ring = new AsyncHttpExchangeRecorder.ExchangeRing(2);
+
+        // Five laps over the two slots
+        for (int i = 0; i < 10; i++) {
+            HttpExchange exchange = exchange("/" + i);
+            assertTrue(ring.offer(exchange));
+            assertSame(exchange, ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void testConcurrentProducersLoseNoExchange() throws Exception {
+        int producers = 8;
+        int perProducer = 10_000;
+        AsyncHttpExchangeRecorder.ExchangeRing ring = new AsyncHttpExchangeRecorder.ExchangeRing(1024);
+        Set<HttpExchange> offered = ConcurrentHashMap.newKeySet();
+        Set<HttpExchange> polled = new HashSet<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        HttpExchange exchange = exchange("/%s/%s".formatted(producer, i));
+                        // Retry while the consumer catches up
+                        while (!ring.offer(exchange)) {
+                            Thread.onSpinWait();
+                        }
+                        offered.add(exchange);
+                    }
+                });
+            }
+            start.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (polled.size() < producers * perProducer && System.nanoTime() < deadline) {
+                HttpExchange exchange = ring.poll();
+                if (exchange != null) {
+                    assertTrue(polled.add(exchange), "Exchange polled twice");
+                }
+            }
+        }
+
+        assertEquals(producers * perProducer, polled.size());
+        assertEquals(offered, polled);
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void testRedactedHeadersAreMasked() throws InterruptedException {
+        SystemConfigurationProperties.HttpExchanges properties = new SystemConfigurationProperties.HttpExchanges();
+        properties.setRedactedHeaders(List.of("Authorization"));
+        AsyncHttpExchangeRecorder recorder = new AsyncHttpExchangeRecorder(properties);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("authorization", List.of("Bearer secret"));
+        headers.put("Accept", List.of("application/json"));
+
+        try {
+            String logged = recorder.headers(exchange("/accounts", headers));
+
+            assertEquals("authorization = ******,Accept = application/json", logged);
+        } finally {
+            recorder.close();
+        }
+    }
+
+    private static HttpExchange exchange(String path) {
+        return exchange(path, Map.of());
+    }
+
+    private static HttpExchange exchange(String path, Map<String, List<String>> headers) {
+        return new HttpExchange(
+                Instant.now(),
+                new HttpExchange.Request(URI.create("http://localhost" + path), "127.0.0.1", "GET", new LinkedHashMap<>(headers)),
+                new HttpExchange.Response(200, Map.of()),
+                null,
+                null,
+                Duration.ofMillis(1)
+        );
+    }
+}
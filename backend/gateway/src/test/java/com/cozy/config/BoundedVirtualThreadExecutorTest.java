@@ -0,0 +1,46 @@
+package com.cozy.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void testAtMostMaxConcurrencyTasksRunAtOnce() throws InterruptedException {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        // Submitting never blocks the caller, the tasks beyond the permits wait on their own thread
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(2, running.get());
+        assertEquals(0, executor.availablePermits());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(2, executor.availablePermits());
+    }
+}
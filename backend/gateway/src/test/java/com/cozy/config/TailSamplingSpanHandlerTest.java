@@ -0,0 +1,149 @@
+package com.cozy.config;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import com.cozy.shared.SystemConfigurationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the handler behind a Brave tracer that samples nothing up front and records every span locally, the way
+ * {@link TracingConfiguration} sets it up.
+ */
+class TailSamplingSpanHandlerTest {
+    private final List<Exported> exported = new CopyOnWriteArrayList<>();
+    private final SystemConfigurationProperties.Tracing properties = new SystemConfigurationProperties.Tracing();
+    private Tracing tracing;
+
+    @AfterEach
+    void tearDown() {
+        if (this.tracing != null) {
+            this.tracing.close();
+        }
+    }
+
+    @Test
+    void testFailedTraceIsExportedAsSampled() {
+        Tracer tracer = this.tracer();
+        Span root = tracer.newTrace().name("root").start();
+        tracer.newChild(root.context()).name("child").start().finish();
+
+        root.error(new IllegalStateException("boom")).finish();
+
+        assertEquals(List.of("child", "root"), this.exportedNames());
+        assertTrue(this.exported.stream().allMatch(span -> Boolean.TRUE.equals(span.context().sampled())));
+    }
+
+    @Test
+    void testServerErrorIsKept() {
+        Span root = this.tracer().newTrace().name("root").start();
+
+        root.tag("http.status_code", "503").finish();
+
+        assertEquals(List.of("root"), this.exportedNames());
+    }
+
+    @Test
+    void testSlowTraceIsKept() {
+        this.properties.setSlowThreshold(Duration.ofSeconds(1));
+        Span root = this.tracer().newTrace().name("root").start(1_000);
+
+        root.finish(1_000 + TimeUnit.SECONDS.toMicros(2));
+
+        assertEquals(List.of("root"), this.exportedNames());
+    }
+
+    @Test
+    void testAlwaysSampledRouteIsKept() {
+        this.properties.setAlwaysSampledRoutes(List.of("/accounts/**"));
+        Tracer tracer = this.tracer();
+
+        tracer.newTrace().name("root").start().tag("uri", "/accounts/{id}").finish();
+        tracer.newTrace().name("other").start().tag("uri", "/bookings/{id}").finish();
+
+        assertEquals(List.of("root"), this.exportedNames());
+    }
+
+    @Test
+    void testUneventfulTraceIsDropped() {
+        Tracer tracer = this.tracer();
+        Span root = tracer.newTrace().name("root").start();
+        tracer.newChild(root.context()).name("child").start().finish();
+
+        root.tag("http.status_code", "200").finish();
+
+        assertTrue(this.exported.isEmpty());
+    }
+
+    @Test
+    void testSpansBeyondMaxPendingTracesAreDropped() {
+        this.properties.setMaxPendingTraces(1);
+        this.properties.setMaxPendingAge(Duration.ofHours(1));
+        Tracer tracer = this.tracer();
+        Span first = tracer.newTrace().name("first").start();
+        Span second = tracer.newTrace().name("second").start();
+        tracer.newChild(first.context()).name("first-child").start().finish();
+        tracer.newChild(second.context()).name("second-child").start().finish();
+
+        second.error(new IllegalStateException("boom")).finish();
+        first.error(new IllegalStateException("boom")).finish();
+
+        assertEquals(List.of("second", "first-child", "first"), this.exportedNames());
+    }
+
+    @Test
+    void testStaleTracesAreEvictedOnceFull() throws InterruptedException {
+        this.properties.setMaxPendingTraces(1);
+        this.properties.setMaxPendingAge(Duration.ZERO);
+        Tracer tracer = this.tracer();
+        Span first = tracer.newTrace().name("first").start();
+        Span second = tracer.newTrace().name("second").start();
+        tracer.newChild(first.context()).name("first-child").start().finish();
+        TimeUnit.MILLISECONDS.sleep(1);
+        tracer.newChild(second.context()).name("second-child").start().finish();
+
+        first.error(new IllegalStateException("boom")).finish();
+        second.error(new IllegalStateException("boom")).finish();
+
+        assertEquals(List.of("first", "second-child", "second"), this.exportedNames());
+    }
+
+    private Tracer tracer() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("exporter", new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                TailSamplingSpanHandlerTest.this.exported.add(new Exported(context, span.name()));
+                return true;
+            }
+        });
+        TailSamplingSpanHandler handler = new TailSamplingSpanHandler(this.properties, beanFactory.getBeanProvider(SpanHandler.class));
+        beanFactory.addBean("tailSamplingSpanHandler", handler);
+        this.tracing = Tracing.newBuilder()
+                .sampler(Sampler.NEVER_SAMPLE)
+                .alwaysSampleLocal()
+                .addSpanHandler(handler)
+                .build();
+        return this.tracing.tracer();
+    }
+
+    private List<String> exportedNames() {
+        return this.exported.stream().map(Exported::name).toList();
+    }
+
+    private record Exported(TraceContext context, String name) {
+    }
+}
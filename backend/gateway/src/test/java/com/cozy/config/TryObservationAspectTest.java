@@ -0,0 +1,98 @@
+package com.cozy.config;
+
+import io.micrometer.observation.annotation.Observed;
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static io.micrometer.observation.tck.TestObservationRegistryAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TryObservationAspectTest {
+    private final TestObservationRegistry registry = TestObservationRegistry.create();
+    private ObservedService service;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ObservedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TryObservationAspect(this.registry));
+        this.service = factory.getProxy();
+    }
+
+    @Test
+    void testFailedTryIsObservedAsFailure() {
+        assertTrue(this.service.find(false).isFailure());
+
+        assertThat(this.registry)
+                .hasSingleObservationThat()
+                .hasNameEqualTo("test.service")
+                .hasContextualNameEqualTo("ObservedService#find")
+                .hasLowCardinalityKeyValue("outcome", "FAILURE")
+                .hasLowCardinalityKeyValue("method", "find")
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void testSuccessfulTryIsObservedAsSuccess() {
+        assertEquals("found", this.service.find(true).get());
+
+        assertThat(this.registry)
+                .hasSingleObservationThat()
+                .hasLowCardinalityKeyValue("outcome", "SUCCESS")
+                .doesNotHaveError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void testCompletionStageIsObservedUntilCompleted() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletionStage<String> result = this.service.findLater(pending);
+
+        assertThat(this.registry).hasSingleObservationThat().isNotStopped();
+        pending.completeExceptionally(new IllegalStateException("boom"));
+        assertTrue(result.toCompletableFuture().isCompletedExceptionally());
+        assertThat(this.registry)
+                .hasSingleObservationThat()
+                .hasLowCardinalityKeyValue("outcome", "FAILURE")
+                .hasError()
+                .hasBeenStopped();
+    }
+
+    @Test
+    void testAnnotatedMethodIsObservedOnce() {
+        this.service.count();
+
+        // Matched by both the class and the method pointcut, only the method one applies
+        assertThat(this.registry)
+                .hasNumberOfObservationsEqualTo(1)
+                .hasSingleObservationThat()
+                .hasNameEqualTo("test.count")
+                .hasLowCardinalityKeyValue("outcome", "SUCCESS");
+    }
+
+    @Observed(name = "test.service")
+    public static class ObservedService {
+
+        public Try<String> find(boolean found) {
+            return found ? Try.success("found") : Try.failure(new IllegalStateException("Not found"));
+        }
+
+        public CompletionStage<String> findLater(CompletableFuture<String> result) {
+            return result;
+        }
+
+        @Observed(name = "test.count")
+        public int count() {
+            return 1;
+        }
+    }
+}
@@ -4,19 +4,33 @@
 
 package com.cozy.account.config;
 
+import com.cozy.account.core.AccountImporter;
 import com.cozy.account.core.AccountManager;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.util.AccountDecisionCache;
+import com.cozy.account.core.port.in.AccountImportManagement;
 import com.cozy.account.core.port.in.AccountManagement;
+import com.cozy.account.core.port.out.AccountImportRepository;
 import com.cozy.account.core.port.out.AccountRepository;
 import com.cozy.account.core.port.out.ProfileRepository;
+import com.cozy.account.core.port.out.ReviewQueueRepository;
 import com.cozy.account.infra.AccountRepositoryImpl;
+import com.cozy.account.infra.JdbcAccountImportRepository;
+import com.cozy.account.infra.JdbcReviewQueueRepository;
 import com.cozy.account.infra.ProfileRepositoryImpl;
 import com.cozy.account.infra.jpa.JpaAccountRepository;
 import com.cozy.account.infra.jpa.JpaPersonalInformationRepository;
 import com.cozy.account.infra.jpa.JpaProfileRepository;
+import com.cozy.shared.db.BatchLoader;
 import com.cozy.shared.security.IdPUserManagementAdapter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.context.annotation.RequestScope;
 
 @Import({AccountServiceProperties.class})
 class AccountDomainConfiguration {
@@ -26,24 +40,85 @@ class AccountDomainConfiguration {
     public AccountManagement accountManagement(AccountRepository accountRepository,
                                                IdPUserManagementAdapter idpUserManagementAdapter,
                                                ProfileRepository profileRepository,
-                                               AccountServiceProperties accountServiceProperties
+                                               ReviewQueueRepository reviewQueueRepository,
+                                               AccountServiceProperties accountServiceProperties,
+                                               BatchLoader<Long, AccountProjection> accountProjectionLoader,
+                                               AccountDecisionCache accountDecisionCache
     ) {
         return new AccountManager(
                 accountRepository,
                 profileRepository,
+                reviewQueueRepository,
                 idpUserManagementAdapter,
-                accountServiceProperties.getGlobalSettings()
+                accountServiceProperties.getGlobalSettings(),
+                accountServiceProperties.getBatchLookup(),
+                accountServiceProperties.getBulkPatch(),
+                accountProjectionLoader,
+                accountDecisionCache
         );
     }
 
+    /**
+     * Permission facts of the accounts, local to this instance like the second level cache.
+     */
     @Bean
-    public AccountRepository accountRepository(JpaAccountRepository accountRepository, JpaPersonalInformationRepository personalInformationRepository) {
-        return new AccountRepositoryImpl(accountRepository, personalInformationRepository);
+    public AccountDecisionCache accountDecisionCache(AccountServiceProperties accountServiceProperties) {
+        return new AccountDecisionCache(accountServiceProperties.getDecisionCache().getCapacity(), accountServiceProperties.getDecisionCache().getTimeToLive());
     }
 
+    /**
+     * Hits and misses of the decision cache, published like the other caches under {@code cache.gets}.
+     */
     @Bean
-    public ProfileRepository profileRepository(JpaProfileRepository profileRepository) {
-        return new ProfileRepositoryImpl(profileRepository);
+    public MeterBinder accountDecisionCacheMetrics(AccountDecisionCache accountDecisionCache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", accountDecisionCache, AccountDecisionCache::hitCount)
+                    .tags("cache", "account-decision", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", accountDecisionCache, AccountDecisionCache::missCount)
+                    .tags("cache", "account-decision", "result", "miss")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * One loader per HTTP request, an account resolved while serving a request is queried once. The account manager
+     * gets a scoped proxy, the loader must only be used while serving a request.
+     */
+    @Bean
+    @RequestScope
+    public BatchLoader<Long, AccountProjection> accountProjectionLoader(AccountRepository accountRepository,
+                                                                        AccountServiceProperties accountServiceProperties) {
+        return new BatchLoader<>(accountRepository::findProjections, AccountProjection::id, accountServiceProperties.getBatchLookup().getMaxBatchSize());
+    }
+
+    @Bean
+    public AccountImportManagement accountImportManagement(AccountRepository accountRepository,
+                                                           AccountImportRepository accountImportRepository,
+                                                           AccountServiceProperties accountServiceProperties) {
+        return new AccountImporter(accountRepository, accountImportRepository, accountServiceProperties.getGlobalSettings(), accountServiceProperties.getImports());
+    }
+
+    @Bean
+    public AccountImportRepository accountImportRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        return new JdbcAccountImportRepository(jdbcTemplate);
+    }
+
+    @Bean
+    public ReviewQueueRepository reviewQueueRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        return new JdbcReviewQueueRepository(jdbcTemplate);
+    }
+
+    @Bean
+    public AccountRepository accountRepository(JpaAccountRepository accountRepository,
+                                               JpaPersonalInformationRepository personalInformationRepository,
+                                               EntityManager entityManager) {
+        return new AccountRepositoryImpl(accountRepository, personalInformationRepository, entityManager);
+    }
+
+    @Bean
+    public ProfileRepository profileRepository(JpaProfileRepository profileRepository, EntityManager entityManager) {
+        return new ProfileRepositoryImpl(profileRepository, entityManager);
     }
 
 }
@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,6 +18,14 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class AccountServiceProperties {
     @JsonProperty("globalSettings")
     private GlobalSettings globalSettings;
+    @JsonProperty("batchLookup")
+    private BatchLookup batchLookup = new BatchLookup();
+    @JsonProperty("bulkPatch")
+    private BulkPatch bulkPatch = new BulkPatch();
+    @JsonProperty("imports")
+    private Imports imports = new Imports();
+    @JsonProperty("decisionCache")
+    private DecisionCache decisionCache = new DecisionCache();
 
     @Getter
     @Setter
@@ -28,4 +39,77 @@ public class AccountServiceProperties {
         @JsonProperty("timezone")
         private String timeZone;
     }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchLookup {
+        /**
+         * Maximum number of ids of a single {@code IN} query.
+         */
+        @JsonProperty("maxBatchSize")
+        private int maxBatchSize = 100;
+        /**
+         * Maximum number of ids a caller may ask for at once.
+         */
+        @JsonProperty("maxIds")
+        private int maxIds = 500;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkPatch {
+        /**
+         * Number of accounts loaded and flushed together, best kept a multiple of {@code hibernate.jdbc.batch_size}.
+         */
+        @JsonProperty("chunkSize")
+        private int chunkSize = 50;
+        /**
+         * Maximum number of accounts a single bulk patch may touch.
+         */
+        @JsonProperty("maxItems")
+        private int maxItems = 1000;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Imports {
+        /**
+         * Where the uploaded files wait for their import, it must be shared by the instances running the import jobs.
+         */
+        @JsonProperty("stagingDirectory")
+        private String stagingDirectory = Path.of(System.getProperty("java.io.tmpdir"), "cozy-account-imports").toString();
+        /**
+         * Number of rows validated, deduplicated and inserted together.
+         */
+        @JsonProperty("chunkSize")
+        private int chunkSize = 500;
+        /**
+         * Rows rejected or skipped beyond this number are counted but not reported.
+         */
+        @JsonProperty("maxReportedErrors")
+        private int maxReportedErrors = 10_000;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DecisionCache {
+        /**
+         * Number of accounts whose permission facts are kept, rounded up to a power of two. Eight bytes each.
+         */
+        @JsonProperty("capacity")
+        private int capacity = 1 << 16;
+        /**
+         * Facts older than this are loaded again, bounds how long the writes made on another instance go unnoticed.
+         */
+        @JsonProperty("timeToLive")
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
 }
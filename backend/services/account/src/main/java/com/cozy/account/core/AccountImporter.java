@@ -0,0 +1,311 @@
+package com.cozy.account.core;
+
+import com.cozy.account.config.AccountServiceProperties;
+import com.cozy.account.core.model.entity.*;
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import com.cozy.account.core.model.imports.AccountImportRow;
+import com.cozy.account.core.port.in.AccountImportManagement;
+import com.cozy.account.core.port.out.AccountImportRepository;
+import com.cozy.account.core.port.out.AccountRepository;
+import com.cozy.shared.GenericObjectValidator;
+import com.cozy.shared.json.JsonCodecs;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.vavr.control.Try;
+import jakarta.validation.ConstraintViolation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports accounts from CSV or NDJSON files.
+ * <ul>
+ *     <li>The file is streamed, at most {@code chunkSize} rows are held in memory whatever the size of the file.</li>
+ *     <li>The rows of a chunk are validated in a single pass, then deduplicated on user id and email, within the chunk
+ *     and against the stored accounts. A duplicate is skipped, the existing account wins.</li>
+ *     <li>The accounts of a chunk are inserted in a single transaction with batched inserts. When the transaction
+ *     fails, e.g. a concurrent registration took one of the emails, the chunk is inserted again row by row.</li>
+ *     <li>The import state, including the number of processed rows, is persisted after each chunk; running an import
+ *     again resumes after the last processed chunk.</li>
+ * </ul>
+ * A chunk replayed after a crash does no harm, its rows are found as duplicates. Only a file that cannot be parsed
+ * any further fails the import, every other problem is reported per row.
+ * <p>
+ * The accounts are created without any call to Auth0, their role is only stored locally.
+ */
+@Slf4j
+public class AccountImporter implements AccountImportManagement {
+    private static final ObjectReader CSV_READER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build()
+            .readerFor(AccountImportRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    private static final ObjectReader NDJSON_READER = JsonCodecs.reader(JsonCodecs.constructType(AccountImportRow.class));
+
+    private final AccountRepository accountRepository;
+    private final AccountImportRepository accountImportRepository;
+    private final AccountServiceProperties.GlobalSettings globalSettings;
+    private final AccountServiceProperties.Imports settings;
+
+    public AccountImporter(AccountRepository accountRepository,
+                           AccountImportRepository accountImportRepository,
+                           AccountServiceProperties.GlobalSettings globalSettings,
+                           AccountServiceProperties.Imports settings) {
+        if (settings.getChunkSize() < 1) {
+            throw new IllegalArgumentException("Chunk size must not be less than one!");
+        }
+        this.accountRepository = accountRepository;
+        this.accountImportRepository = accountImportRepository;
+        this.globalSettings = globalSettings;
+        this.settings = settings;
+    }
+
+    @Override
+    public Try<AccountImport> create(AccountImport.Format format, InputStream content) {
+        UUID importId = UUID.randomUUID();
+        return Try.of(() -> {
+                    Path stagingDirectory = Files.createDirectories(Path.of(this.settings.getStagingDirectory()));
+                    Path source = stagingDirectory.resolve("%s.%s".formatted(importId, format.name().toLowerCase(Locale.ROOT)));
+                    long size = Files.copy(content, source);
+                    log.info("Account import {} staged, {} bytes", importId, size);
+                    return AccountImport.create(importId, format, source.toString());
+                })
+                .flatMap(this.accountImportRepository::save);
+    }
+
+    @Override
+    public Try<AccountImport> run(UUID importId) {
+        return this.accountImportRepository.findById(importId)
+                .flatMap(accountImport -> {
+                    if (accountImport.isDone()) {
+                        return Try.success(accountImport);
+                    }
+                    accountImport.setStatus(AccountImport.Status.RUNNING);
+                    return this.save(accountImport)
+                            .flatMap(this::process)
+                            .recoverWith(e -> {
+                                log.error("Account import {} stopped after {} rows. Reason: {}", importId, accountImport.getCheckpoint(), e.getMessage());
+                                accountImport.setStatus(AccountImport.Status.FAILED);
+                                accountImport.setLastError(e.getMessage());
+                                return this.save(accountImport).flatMap(saved -> Try.failure(e));
+                            });
+                });
+    }
+
+    @Override
+    public Try<AccountImport> findById(UUID importId) {
+        return this.accountImportRepository.findById(importId);
+    }
+
+    @Override
+    public Try<List<AccountImportError>> findErrors(UUID importId, long afterRow, int limit) {
+        return this.accountImportRepository.findErrors(importId, afterRow, limit);
+    }
+
+    private Try<AccountImport> process(AccountImport accountImport) {
+        return Try.of(() -> {
+            Path source = Path.of(accountImport.getSource());
+            ObjectReader reader = switch (accountImport.getFormat()) {
+                case CSV -> CSV_READER;
+                case NDJSON -> NDJSON_READER;
+            };
+            try (InputStream content = new BufferedInputStream(Files.newInputStream(source));
+                 MappingIterator<AccountImportRow> rows = reader.readValues(content)) {
+                long row = 0;
+                List<NumberedRow> chunk = new ArrayList<>(this.settings.getChunkSize());
+                List<AccountImportError> unreadable = new ArrayList<>();
+                while (rows.hasNextValue()) {
+                    row++;
+                    AccountImportRow value = this.next(rows, row, unreadable);
+                    if (row <= accountImport.getCheckpoint()) {
+                        // Processed by an earlier run
+                        unreadable.clear();
+                        continue;
+                    }
+                    if (Objects.nonNull(value)) {
+                        chunk.add(new NumberedRow(row, value));
+                    }
+                    if (chunk.size() + unreadable.size() >= this.settings.getChunkSize()) {
+                        this.importChunk(accountImport, chunk, unreadable, row);
+                        chunk.clear();
+                        unreadable.clear();
+                    }
+                }
+                if (!chunk.isEmpty() || !unreadable.isEmpty()) {
+                    this.importChunk(accountImport, chunk, unreadable, row);
+                }
+            }
+
+            accountImport.setStatus(AccountImport.Status.COMPLETED);
+            AccountImport completed = this.save(accountImport).get();
+            Files.deleteIfExists(source);
+            log.info("Account import {} completed: {} imported, {} skipped, {} failed", accountImport.getId(), completed.getImportedRows(), completed.getSkippedRows(), completed.getFailedRows());
+            return completed;
+        });
+    }
+
+    /**
+     * @return the parsed row, {@code null} when it does not map to a user, the error is then added to {@code unreadable}
+     */
+    private AccountImportRow next(MappingIterator<AccountImportRow> rows, long row, List<AccountImportError> unreadable) throws JsonParseException {
+        try {
+            return rows.nextValue();
+        } catch (JsonParseException e) {
+            // The parser cannot tell where the next row starts
+            throw e;
+        } catch (JsonMappingException e) {
+            unreadable.add(new AccountImportError(row, null, e.getOriginalMessage()));
+            return null;
+        } catch (Exception e) {
+            throw new IllegalStateException("Row %s of the import cannot be read".formatted(row), e);
+        }
+    }
+
+    /**
+     * @param lastRow the last row of the chunk, the checkpoint once the chunk is stored
+     */
+    private void importChunk(AccountImport accountImport, List<NumberedRow> chunk, List<AccountImportError> unreadable, long lastRow) {
+        List<AccountImportError> failed = new ArrayList<>(unreadable);
+        List<AccountImportError> skipped = new ArrayList<>();
+
+        // A single validation pass over the chunk, each violation is traced back to its row by identity
+        Map<AccountImportRow, List<String>> violations = new IdentityHashMap<>();
+        GenericObjectValidator.validate(chunk.stream().map(NumberedRow::value).toList())
+                .forEach(violation -> violations.computeIfAbsent(violation.getRootBean(), value -> new ArrayList<>())
+                        .add(describe(violation)));
+        List<NumberedRow> valid = new ArrayList<>();
+        for (NumberedRow numberedRow : chunk) {
+            AccountImportRow value = numberedRow.value();
+            if (violations.containsKey(value)) {
+                failed.add(numberedRow.error(String.join(", ", violations.get(value))));
+            } else if (!isAdult(value.getBirthDate())) {
+                failed.add(numberedRow.error("User must be at least 18 years old"));
+            } else {
+                valid.add(numberedRow);
+            }
+        }
+
+        Set<String> userIds = this.accountRepository.findExistingUserIds(valid.stream().map(r -> r.value().getUserId()).collect(Collectors.toSet())).get();
+        Set<String> emails = this.accountRepository.findExistingEmails(valid.stream().map(r -> r.value().getEmail()).collect(Collectors.toSet())).get();
+        Set<String> seenUserIds = new HashSet<>(userIds);
+        Set<String> seenEmails = new HashSet<>(emails);
+        List<NumberedRow> accepted = new ArrayList<>();
+        for (NumberedRow numberedRow : valid) {
+            String userId = numberedRow.value().getUserId();
+            String email = numberedRow.value().getEmail();
+            if (seenUserIds.contains(userId)) {
+                skipped.add(numberedRow.error("An account already exists for user id %s".formatted(userId)));
+            } else if (seenEmails.contains(email)) {
+                skipped.add(numberedRow.error("An account already exists for email %s".formatted(email)));
+            } else {
+                seenUserIds.add(userId);
+                seenEmails.add(email);
+                accepted.add(numberedRow);
+            }
+        }
+
+        long imported = this.accountRepository.saveAll(accepted.stream().map(r -> this.toAccount(r.value())).toList())
+                .map(accounts -> (long) accounts.size())
+                .recover(e -> {
+                    log.warn("Account import {}: chunk ending at row {} failed, inserting its rows one by one. Reason: {}", accountImport.getId(), lastRow, e.getMessage());
+                    return accepted.stream()
+                            .filter(r -> this.accountRepository.save(this.toAccount(r.value()))
+                                    .onFailure(error -> failed.add(r.error(error.getMessage())))
+                                    .isSuccess())
+                            .count();
+                })
+                .get();
+
+        this.report(accountImport, failed, skipped);
+        accountImport.setCheckpoint(lastRow);
+        accountImport.setImportedRows(accountImport.getImportedRows() + imported);
+        accountImport.setSkippedRows(accountImport.getSkippedRows() + skipped.size());
+        accountImport.setFailedRows(accountImport.getFailedRows() + failed.size());
+        this.save(accountImport).get();
+        log.info("Account import {}: {} rows processed, {} imported, {} skipped, {} failed", accountImport.getId(), lastRow, accountImport.getImportedRows(), accountImport.getSkippedRows(), accountImport.getFailedRows());
+    }
+
+    /**
+     * Store the errors of the chunk while the report has room left.
+     */
+    private void report(AccountImport accountImport, List<AccountImportError> failed, List<AccountImportError> skipped) {
+        long reported = accountImport.getFailedRows() + accountImport.getSkippedRows();
+        long room = Math.max(0, this.settings.getMaxReportedErrors() - reported);
+        List<AccountImportError> errors = new ArrayList<>(failed);
+        errors.addAll(skipped);
+        errors.sort(Comparator.comparingLong(AccountImportError::row));
+        this.accountImportRepository.saveErrors(accountImport.getId(), errors.subList(0, (int) Math.min(room, errors.size()))).get();
+    }
+
+    /**
+     * Same account as a registration builds, see {@code AccountManager.setupAccount}.
+     */
+    private Account toAccount(AccountImportRow row) {
+        Profile profile = Profile.builder()
+                .profilePictureUrl(row.getProfilePictureUrl())
+                .about(row.getAbout())
+                .showPreviousBookings(false)
+                .isEmailVerified(row.isEmailVerified())
+                .isPhoneNumberVerified(false)
+                .isGovernmentIdVerified(false)
+                .birthDate(row.getBirthDate())
+                .build();
+
+        PersonalInformation personalInformation = PersonalInformation.builder()
+                .email(row.getEmail())
+                .legalName(PersonalInformation.LegalName.builder()
+                        .firstName(row.getFirstName())
+                        .lastName(row.getLastName())
+                        .build())
+                .build();
+
+        Settings settings = new Settings(Settings.GlobalSettings.builder()
+                .defaultLanguage(Optional.ofNullable(row.getLanguage()).orElseGet(this.globalSettings::getLanguage))
+                .defaultCurrency(Optional.ofNullable(row.getCurrency()).orElseGet(this.globalSettings::getCurrency))
+                .defaultTimeZone(Optional.ofNullable(row.getTimeZone()).orElseGet(this.globalSettings::getTimeZone))
+                .build());
+
+        return Account.builder()
+                .userId(row.getUserId())
+                .role(Objects.requireNonNullElse(row.getRole(), Account.Role.GUEST))
+                .personalInformation(personalInformation)
+                .profile(profile)
+                .settings(settings)
+                .status(AccountStatus.ACTIVE)
+                .build();
+    }
+
+    private Try<AccountImport> save(AccountImport accountImport) {
+        accountImport.setUpdatedAt(Instant.now());
+        return this.accountImportRepository.save(accountImport);
+    }
+
+    private static String describe(ConstraintViolation<AccountImportRow> violation) {
+        return "%s %s".formatted(violation.getPropertyPath(), violation.getMessage());
+    }
+
+    private static boolean isAdult(LocalDate birthDate) {
+        return !birthDate.isAfter(LocalDate.now().minusYears(18));
+    }
+
+    private record NumberedRow(long row, AccountImportRow value) {
+        AccountImportError error(String message) {
+            return new AccountImportError(this.row, this.value.getUserId(), message);
+        }
+    }
+}
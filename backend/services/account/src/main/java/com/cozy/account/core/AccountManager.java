@@ -9,16 +9,27 @@ import com.cozy.account.config.AccountServiceProperties;
 import com.cozy.account.core.exception.AccountIntegrityViolationException;
 import com.cozy.account.core.exception.AccountNotFoundException;
 import com.cozy.account.core.model.entity.*;
+import com.cozy.account.core.model.payload.internal.AccountPatchResult;
 import com.cozy.account.core.model.payload.internal.field.AccountField;
 import com.cozy.account.core.model.payload.internal.field.RegisterUserRequest;
 import com.cozy.account.core.model.payload.internal.field.UpdateProfileRequest;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
+import com.cozy.account.core.model.util.AccountDecisionCache;
 import com.cozy.account.core.model.util.AccountUpdater;
 import com.cozy.account.core.port.in.AccountManagement;
 import com.cozy.account.core.port.out.AccountRepository;
 import com.cozy.account.core.port.out.ProfileRepository;
+import com.cozy.account.core.port.out.ReviewQueueRepository;
 import com.cozy.shared.GenericObjectValidator;
+import com.cozy.shared.db.BatchLoader;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import com.cozy.shared.security.IdPUserManagementAdapter;
 import com.cozy.shared.security.SecurityContextUtil;
+import com.cozy.shared.security.UserInfo;
+import io.micrometer.observation.annotation.Observed;
 import io.vavr.control.Try;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -29,15 +40,28 @@ import org.springframework.security.access.AuthorizationServiceException;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 @Slf4j
 @RequiredArgsConstructor
+@Observed(name = "account.manager")
 public class AccountManager implements AccountManagement {
     private final AccountRepository accountRepository;
     private final ProfileRepository profileRepository;
+    private final ReviewQueueRepository reviewQueueRepository;
     private final IdPUserManagementAdapter idpUserManagementAdapter;
     private final AccountServiceProperties.GlobalSettings globalSettings;
+    private final AccountServiceProperties.BatchLookup batchLookup;
+    private final AccountServiceProperties.BulkPatch bulkPatch;
+    /**
+     * Request scoped, see {@code AccountDomainConfiguration}.
+     */
+    private final BatchLoader<Long, AccountProjection> accountProjectionLoader;
+    private final AccountDecisionCache decisionCache;
 
     @Override
     public Try<Account> register(String userId, RegisterUserRequest request) {
@@ -80,6 +104,30 @@ public class AccountManager implements AccountManagement {
                 .map(t -> null);
     }
 
+    @Override
+    public Try<AccountProjection> findProjectionById(Long accountId) {
+        log.debug("Finding projection of account with id {}", accountId);
+        return this.getAuthenticatedAccount()
+                .filter(account -> account.getId().equals(accountId) || account.getRole().equals(Account.Role.ADMIN),
+                        () -> new AccessDeniedException("You cannot access an account not belonging to you"))
+                .flatMap(account -> this.accountRepository.findProjectionById(accountId));
+    }
+
+    @Override
+    public Try<CursorPage<AccountProjection>> findAllProjections(CursorPageRequest pageRequest) {
+        log.debug("Finding account projections page {}", pageRequest);
+        return this.accountRepository.findProjections(pageRequest);
+    }
+
+    @Override
+    public Try<Map<Long, AccountProjection>> findProjectionsByIds(List<Long> accountIds) {
+        if (accountIds.size() > this.batchLookup.getMaxIds()) {
+            return Try.failure(new IllegalArgumentException("At most %s accounts can be looked up at once".formatted(this.batchLookup.getMaxIds())));
+        }
+        log.debug("Finding projections of {} accounts", accountIds.size());
+        return this.accountProjectionLoader.loadMany(accountIds);
+    }
+
     @Override
     public Try<List<Account>> findAll() {
         log.debug("Finding all accounts");
@@ -91,10 +139,24 @@ public class AccountManager implements AccountManagement {
         return this.accountRepository.findAll(accountIds);
     }
 
+    @Override
+    public Try<CursorPage<Account>> findAll(CursorPageRequest pageRequest) {
+        log.debug("Finding accounts page {}", pageRequest);
+        return this.accountRepository.findAll(pageRequest);
+    }
+
+    @Override
+    public Try<Long> exportAll(Consumer<Account> consumer) {
+        log.debug("Exporting all accounts");
+        return this.accountRepository.streamAll(consumer)
+                .onSuccess(count -> log.info("Exported {} accounts", count));
+    }
+
     @Override
     public Try<Void> delete(Long accountId) {
         log.debug("Deleting account with id {}", accountId);
         return this.accountRepository.deleteById(accountId)
+                .andThen(() -> this.decisionCache.invalidate(accountId))
                 .map(o -> null);
     }
 
@@ -104,7 +166,7 @@ public class AccountManager implements AccountManagement {
         return this.accountRepository.findById(accountId)
                 .flatMap(account -> {
                     account.setStatus(AccountStatus.SUSPENDED);
-                    return this.accountRepository.save(account);
+                    return this.save(account);
                 })
                 .map(v -> null);
     }
@@ -121,31 +183,78 @@ public class AccountManager implements AccountManagement {
                         .flatMap(_v -> {
                             log.info("Patching account with id {} with fields {}", accountId, patchedFields);
                             AccountUpdater accountUpdater = new AccountUpdater(account);
-                            patchedFields.forEach(accountUpdater::patch);
-                            Account accountWithUpdates = accountUpdater.account();
-                            return this.accountRepository.save(accountWithUpdates)
+                            // Settings only patches are merged into the stored document instead of rewriting the account
+                            Try<Account> patchedAccount = AccountUpdater.globalSettingsPatch(patchedFields)
+                                    .map(patch -> this.accountRepository.patchGlobalSettings(accountId, patch)
+                                            .andThen(() -> this.decisionCache.invalidate(accountId))
+                                            .map(v -> {
+                                                patchedFields.forEach(accountUpdater::patch);
+                                                return accountUpdater.account();
+                                            }))
+                                    .orElseGet(() -> {
+                                        patchedFields.forEach(accountUpdater::patch);
+                                        return this.save(accountUpdater.account());
+                                    });
+                            return patchedAccount
                                     .onSuccess(savedListing -> log.info("Account with id {} updated with patchedFields {}", accountId, patchedFields));
                         })
                 );
     }
 
+    @Override
+    public Try<List<AccountPatchResult>> patchAccounts(Map<Long, List<AccountField>> accountFields) {
+        if (accountFields.size() > this.bulkPatch.getMaxItems()) {
+            return Try.failure(new IllegalArgumentException("At most %s accounts can be patched at once".formatted(this.bulkPatch.getMaxItems())));
+        }
+        log.info("Patching {} accounts", accountFields.size());
+        // A single validation pass over every field, each violation is traced back to its account by field identity
+        Map<AccountField, Long> accountIdByField = new IdentityHashMap<>();
+        accountFields.forEach((accountId, fields) -> fields.forEach(field -> accountIdByField.put(field, accountId)));
+        Map<Long, List<String>> errors = new HashMap<>();
+        GenericObjectValidator.validate(List.copyOf(accountIdByField.keySet()))
+                .forEach(violation -> errors.computeIfAbsent(accountIdByField.get(violation.getRootBean()), id -> new ArrayList<>())
+                        .add("%s %s".formatted(violation.getPropertyPath(), violation.getMessage())));
+
+        Map<Long, Consumer<Account>> updates = new LinkedHashMap<>();
+        accountFields.forEach((accountId, fields) -> {
+            if (!errors.containsKey(accountId)) {
+                updates.put(accountId, account -> {
+                    AccountUpdater accountUpdater = new AccountUpdater(account);
+                    fields.forEach(accountUpdater::patch);
+                });
+            }
+        });
+        return this.accountRepository.updateAll(updates, this.bulkPatch.getChunkSize())
+                .andThen(updated -> updated.forEach(this.decisionCache::invalidate))
+                .map(updated -> accountFields.keySet().stream()
+                        .map(accountId -> {
+                            if (errors.containsKey(accountId)) {
+                                return AccountPatchResult.invalid(accountId, errors.get(accountId));
+                            }
+                            return updated.contains(accountId) ? AccountPatchResult.updated(accountId) : AccountPatchResult.notFound(accountId);
+                        })
+                        .toList())
+                .onSuccess(results -> log.info("Patched {} of {} accounts", results.stream().filter(result -> result.outcome() == AccountPatchResult.Outcome.UPDATED).count(), accountFields.size()))
+                .onFailure(error -> log.error("Error patching {} accounts. {}", accountFields.size(), error.getMessage()));
+    }
+
     @Override
     public Try<Boolean> isUserAllowedToCreateListing(Long accountId) {
-        return this.accountRepository.findById(accountId)
-                .map(account -> {
-                    boolean isHost = account.getRole().equals(Account.Role.HOST);
-                    boolean isAdmin = account.getRole().equals(Account.Role.ADMIN);
-                    boolean isVerified = this.isAccountVerified(account);
-                    boolean isActive = account.getStatus().equals(AccountStatus.ACTIVE);
+        return this.decisionFacts(accountId)
+                .map(facts -> {
+                    boolean isHost = AccountDecisionCache.hasRole(facts, Account.Role.HOST);
+                    boolean isAdmin = AccountDecisionCache.hasRole(facts, Account.Role.ADMIN);
+                    boolean isVerified = AccountDecisionCache.isEmailVerified(facts);
+                    boolean isActive = AccountDecisionCache.hasStatus(facts, AccountStatus.ACTIVE);
                     return (isHost || isAdmin) && isVerified && isActive;
                 });
     }
 
     @Override
     public Try<Boolean> doesUserExists(Long accountId) {
-        return this.accountRepository.findById(accountId)
-                .filter(account -> account.getStatus().equals(AccountStatus.ACTIVE))
-                .filter(account -> !account.isDeleted())
+        return this.decisionFacts(accountId)
+                .filter(facts -> AccountDecisionCache.hasStatus(facts, AccountStatus.ACTIVE))
+                .filter(facts -> !AccountDecisionCache.isDeleted(facts))
                 .map(Objects::nonNull);
     }
 
@@ -178,19 +287,49 @@ public class AccountManager implements AccountManagement {
                     governmentId.setStatus(status);
                     governmentId.setRejectionReason(rejectionReason);
                     account.getProfile().setIsGovernmentIdVerified(true);
-                    return this.accountRepository.save(account);
+                    return this.save(account);
                 })
                 .map(account -> account.getPersonalInformation().getGovernmentId())
                 ;
     }
 
+    @Override
+    public Try<CursorPage<IdentityVerificationProjection>> findPendingIdentityVerifications(CursorPageRequest pageRequest) {
+        log.debug("Finding pending identity verifications page {}", pageRequest);
+        return this.accountRepository.findIdentityVerifications(PersonalInformation.GovernmentIdStatus.PENDING, pageRequest);
+    }
+
+    @Override
+    public Try<List<ReviewQueueSummary>> findReviewQueueSummary() {
+        return this.reviewQueueRepository.findAll();
+    }
+
+    @Override
+    public Try<List<ReviewQueueSummary>> refreshReviewQueueSummary() {
+        log.debug("Refreshing the review queue summary");
+        return this.reviewQueueRepository.refresh();
+    }
+
+    @Override
+    public Try<Integer> purgeDeletedAccounts(ZonedDateTime deletedBefore, int limit) {
+        log.debug("Purging up to {} accounts deleted before {}", limit, deletedBefore);
+        return this.accountRepository.purgeDeleted(deletedBefore, limit)
+                .andThen(ids -> ids.forEach(this.decisionCache::invalidate))
+                .map(List::size);
+    }
+
+    @Override
+    public Try<List<String>> findRecentlyActiveUserIds(int limit) {
+        return this.accountRepository.findRecentUserIds(limit);
+    }
+
     @Override
     public Try<Void> suspendAccount(Long accountId) {
         return this.retrieveIfUserHasRole(accountId, Account.Role.ADMIN)
                 .flatMap(account -> {
                     account.setDeleted(true);
                     account.setStatus(AccountStatus.SUSPENDED);
-                    return this.accountRepository.save(account);
+                    return this.save(account);
                 })
                 .onFailure(error -> log.error("Error banning account with id {}. {}", accountId, error.getMessage()))
                 .onFailure(error -> log.debug("", error))
@@ -233,6 +372,14 @@ public class AccountManager implements AccountManagement {
                 .onFailure(error -> log.error("", error));
     }
 
+    @Override
+    public Try<CursorPage<Profile>> getAllProfiles(CursorPageRequest pageRequest) {
+        log.debug("Finding profiles page {}", pageRequest);
+        return this.profileRepository.findAll(pageRequest)
+                .onFailure(error -> log.error("Error finding profiles page {}. {}", pageRequest, error.getMessage()))
+                .onFailure(error -> log.debug("", error));
+    }
+
 
     private Try<Account> handleExistingAccount(Account account, RegisterUserRequest request) {
         if (!account.isDeleted()) {
@@ -252,7 +399,7 @@ public class AccountManager implements AccountManagement {
         account.getPersonalInformation()
                 .setLegalName(legalName);
 
-        return this.accountRepository.save(account);
+        return this.save(account);
     }
 
     private Try<String> getAuthenticatedUserId() {
@@ -265,7 +412,30 @@ public class AccountManager implements AccountManagement {
             return Try.failure(new IllegalArgumentException("User must be at least 18 years old"));
         }
 
-        return this.idpUserManagementAdapter.getUserInfo(userId)
+        // Auth0 is queried in the background while the parts of the account that do not depend on it are built
+        CompletableFuture<UserInfo> pendingUserInfo = this.idpUserManagementAdapter.getUserInfoAsync(userId);
+
+        PersonalInformation.LegalName legalName = PersonalInformation.LegalName.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .build();
+
+        PersonalInformation personalInformation = PersonalInformation.builder()
+                .email(request.getEmail())
+                .legalName(legalName)
+                .build();
+
+        Settings settings = new Settings();
+        Settings.GlobalSettings defaultSettings = Settings.GlobalSettings.builder()
+                .defaultLanguage(this.globalSettings.getLanguage())
+                .defaultCurrency(this.globalSettings.getCurrency())
+                .defaultTimeZone(this.globalSettings.getTimeZone())
+                .build();
+
+        settings.setGlobal(defaultSettings);
+
+        return Try.of(pendingUserInfo::join)
+                .recoverWith(CompletionException.class, e -> Try.failure(e.getCause()))
                 .map(userInfo -> {
                     Profile profile = Profile.builder()
                             .profilePictureUrl(userInfo.getPicture())
@@ -276,26 +446,6 @@ public class AccountManager implements AccountManagement {
                             .birthDate(request.getBirthDate())
                             .build();
 
-                    PersonalInformation.LegalName legalName = PersonalInformation.LegalName.builder()
-                            .firstName(request.getFirstName())
-                            .lastName(request.getLastName())
-                            .build();
-
-                    PersonalInformation personalInformation = PersonalInformation.builder()
-                            .email(request.getEmail())
-                            .legalName(legalName)
-                            .build();
-
-
-                    Settings settings = new Settings();
-                    Settings.GlobalSettings defaultSettings = Settings.GlobalSettings.builder()
-                            .defaultLanguage(this.globalSettings.getLanguage())
-                            .defaultCurrency(this.globalSettings.getCurrency())
-                            .defaultTimeZone(this.globalSettings.getTimeZone())
-                            .build();
-
-                    settings.setGlobal(defaultSettings);
-
                     return Account.builder()
                             .userId(userId)
                             .personalInformation(personalInformation)
@@ -304,7 +454,7 @@ public class AccountManager implements AccountManagement {
                             .status(AccountStatus.ACTIVE)
                             .build();
                 })
-                .flatMap(this.accountRepository::save)
+                .flatMap(this::save)
                 .flatMap(account -> this.assignRoleToUser(userId, account, Account.Role.GUEST));
     }
 
@@ -361,13 +511,25 @@ public class AccountManager implements AccountManagement {
                 .map(v -> role)
                 .flatMap(r -> {
                     account.setRole(r);
-                    return this.accountRepository.save(account);
+                    return this.save(account);
                 })
                 .onFailure(error -> log.error("Error assigning role to user {}", userId, error));
     }
 
-    private boolean isAccountVerified(Account account) {
-        return account.getProfile().getIsEmailVerified();
+    /**
+     * Every account write goes through here so the cached permission facts of the account are dropped once the write
+     * is committed.
+     */
+    private Try<Account> save(Account account) {
+        return this.accountRepository.save(account)
+                .andThen(saved -> this.decisionCache.invalidate(saved.getId()));
+    }
+
+    private Try<Long> decisionFacts(Long accountId) {
+        return Try.success(accountId)
+                .filter(Objects::nonNull)
+                .flatMap(id -> this.decisionCache.get(id, loadedId -> this.accountRepository.findSummaryById(loadedId)
+                        .map(AccountDecisionCache::facts)));
     }
 
     private boolean isUserAgeCompliant(LocalDate birthDate) {
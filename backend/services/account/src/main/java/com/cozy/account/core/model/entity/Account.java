@@ -4,7 +4,6 @@
 
 package com.cozy.account.core.model.entity;
 
-import com.cozy.account.core.model.converter.SettingsConverter;
 import com.cozy.shared.db.BaseEntity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -12,6 +11,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Objects;
 
@@ -22,7 +27,29 @@ import java.util.Objects;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "account", schema = "account_service")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Account.CACHE_REGION)
+@NaturalIdCache(region = Account.USER_ID_CACHE_REGION)
+@NamedEntityGraph(
+        name = Account.FULL_GRAPH,
+        attributeNodes = {@NamedAttributeNode("personalInformation"), @NamedAttributeNode("profile")}
+)
 public class Account extends BaseEntity {
+    /**
+     * Local to each node, a write made on another node is only seen here once the entry expired. The region time to
+     * live bounds that staleness, the decision facts are therefore read past it.
+     */
+    public static final String CACHE_REGION = "account.account";
+    /**
+     * Resolves {@link #userId} to the account id, the account itself then comes from {@link #CACHE_REGION}.
+     */
+    public static final String USER_ID_CACHE_REGION = "account.account-user-id";
+    /**
+     * Loads the account with all its associations, to be used whenever the whole account is exposed.
+     */
+    public static final String FULL_GRAPH = "Account.full";
+
+    @NaturalId
     @Column(name = "user_id", unique = true, nullable = false)
     private String userId;
 
@@ -32,15 +59,15 @@ public class Account extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private AccountStatus status = AccountStatus.ACTIVE;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "personal_information_id", referencedColumnName = "id")
     private PersonalInformation personalInformation;
 
-    @Convert(converter = SettingsConverter.class)
-    @Column(name = "settings", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "settings", columnDefinition = "jsonb")
     private Settings settings;
 
-    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "profile_id", referencedColumnName = "id")
     private Profile profile;
 
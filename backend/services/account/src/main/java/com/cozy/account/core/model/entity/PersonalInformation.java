@@ -4,7 +4,6 @@
 
 package com.cozy.account.core.model.entity;
 
-import com.cozy.account.core.model.converter.GovernmentIdConverter;
 import com.cozy.shared.DateUtils;
 import com.cozy.shared.db.BaseEntity;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -12,6 +11,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.generator.EventType;
+import org.hibernate.type.SqlTypes;
 
 import java.io.Serializable;
 import java.time.ZonedDateTime;
@@ -23,19 +28,38 @@ import java.time.ZonedDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "personal_information", schema = "account_service")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PersonalInformation.CACHE_REGION)
 public class PersonalInformation extends BaseEntity {
+    public static final String CACHE_REGION = "account.personal-information";
+
     private String email;
     @Embedded
     private LegalName legalName;
     @Embedded
     private PhoneNumber phoneNumber;
-    @Convert(converter = GovernmentIdConverter.class)
-    @Column(name = "government_id", columnDefinition = "text")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "government_id", columnDefinition = "jsonb")
     private GovernmentId governmentId;
     @Embedded
     private Address address;
     @Embedded
     private EmergencyContact emergencyContact;
+    /**
+     * Generated by the database out of {@link #governmentId}, only meant to be queried.
+     */
+    @Setter(AccessLevel.NONE)
+    @Enumerated(EnumType.STRING)
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "government_id_status", insertable = false, updatable = false)
+    private GovernmentIdStatus governmentIdStatus;
+    /**
+     * Generated by the database out of {@link #governmentId}, only meant to be queried.
+     */
+    @Setter(AccessLevel.NONE)
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "government_id_submitted_at", insertable = false, updatable = false)
+    private ZonedDateTime governmentIdSubmittedAt;
 
 
     @Data
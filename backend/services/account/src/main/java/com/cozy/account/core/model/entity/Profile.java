@@ -5,6 +5,7 @@
 package com.cozy.account.core.model.entity;
 
 import com.cozy.shared.db.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
@@ -13,6 +14,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
@@ -23,7 +26,11 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "profile", schema = "account_service")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Profile.CACHE_REGION)
 public class Profile extends BaseEntity {
+    public static final String CACHE_REGION = "account.profile";
+
     @Column(name = "birthdate")
     private LocalDate birthDate;
     @Column(name = "profile_picture_url", columnDefinition = "TEXT")
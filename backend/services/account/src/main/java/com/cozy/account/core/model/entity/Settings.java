@@ -11,9 +11,10 @@ import java.io.Serializable;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Settings {
+public class Settings implements Serializable {
+    public static final String GLOBAL = "global";
 
-    @JsonProperty("global")
+    @JsonProperty(GLOBAL)
     private GlobalSettings global;
 
     @Data
@@ -21,11 +22,15 @@ public class Settings {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class GlobalSettings implements Serializable {
-        @JsonProperty("default_language")
+        public static final String DEFAULT_LANGUAGE = "default_language";
+        public static final String DEFAULT_CURRENCY = "default_currency";
+        public static final String DEFAULT_TIMEZONE = "default_timezone";
+
+        @JsonProperty(DEFAULT_LANGUAGE)
         private String defaultLanguage;
-        @JsonProperty("default_currency")
+        @JsonProperty(DEFAULT_CURRENCY)
         private String defaultCurrency;
-        @JsonProperty("default_timezone")
+        @JsonProperty(DEFAULT_TIMEZONE)
         private String defaultTimeZone;
     }
 
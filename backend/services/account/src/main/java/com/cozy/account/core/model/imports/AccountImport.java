@@ -0,0 +1,71 @@
+package com.cozy.account.core.model.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of a bulk account import. It is persisted after every chunk of rows, an interrupted import resumes after the
+ * last {@link #checkpoint} instead of starting over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImport {
+    private UUID id;
+    private Format format;
+    /**
+     * Staged copy of the uploaded file.
+     */
+    private String source;
+    private Status status;
+    /**
+     * Number of rows already processed, the next run starts right after them.
+     */
+    private long checkpoint;
+    private long importedRows;
+    /**
+     * Rows whose user id or email already belongs to an account.
+     */
+    private long skippedRows;
+    /**
+     * Rows that could not be parsed, were invalid or could not be stored.
+     */
+    private long failedRows;
+    private String lastError;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static AccountImport create(UUID id, Format format, String source) {
+        Instant now = Instant.now();
+        return AccountImport.builder()
+                .id(id)
+                .format(format)
+                .source(source)
+                .status(Status.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public boolean isDone() {
+        return this.status == Status.COMPLETED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.cozy.account.core.model.imports;
+
+/**
+ * A row of an import that was rejected or skipped.
+ *
+ * @param row    position of the row in the file, starting at 1 and not counting the CSV header
+ * @param userId user id of the row, {@code null} when the row could not be parsed
+ */
+public record AccountImportError(long row, String userId, String message) {
+}
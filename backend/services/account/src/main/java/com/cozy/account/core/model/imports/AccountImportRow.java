@@ -0,0 +1,53 @@
+package com.cozy.account.core.model.imports;
+
+import com.cozy.account.core.model.entity.Account;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A user to import, one CSV line or one NDJSON document. The CSV header names the properties.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AccountImportRow {
+    /**
+     * Id of the user on the authorization server.
+     */
+    @NotBlank
+    private String userId;
+    @NotBlank
+    @Email
+    private String email;
+    @NotBlank
+    private String firstName;
+    @NotBlank
+    private String lastName;
+    @NotNull
+    @Past
+    private LocalDate birthDate;
+    /**
+     * Defaults to {@link Account.Role#GUEST}.
+     */
+    private Account.Role role;
+    private boolean emailVerified;
+    private String profilePictureUrl;
+    private String about;
+    /**
+     * The settings default to the configured global settings.
+     */
+    private String language;
+    private String currency;
+    private String timeZone;
+}
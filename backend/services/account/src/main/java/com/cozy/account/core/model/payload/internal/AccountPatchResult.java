@@ -0,0 +1,29 @@
+package com.cozy.account.core.model.payload.internal;
+
+import java.util.List;
+
+/**
+ * Outcome of a single account of a bulk patch.
+ *
+ * @param errors why the patch was rejected, empty unless the outcome is {@link Outcome#INVALID}
+ */
+public record AccountPatchResult(Long accountId, Outcome outcome, List<String> errors) {
+
+    public static AccountPatchResult updated(Long accountId) {
+        return new AccountPatchResult(accountId, Outcome.UPDATED, List.of());
+    }
+
+    public static AccountPatchResult notFound(Long accountId) {
+        return new AccountPatchResult(accountId, Outcome.NOT_FOUND, List.of());
+    }
+
+    public static AccountPatchResult invalid(Long accountId, List<String> errors) {
+        return new AccountPatchResult(accountId, Outcome.INVALID, List.copyOf(errors));
+    }
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID
+    }
+}
@@ -0,0 +1,61 @@
+package com.cozy.account.core.model.projection;
+
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.shared.db.CursorPageRequest;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Read only view of an account exposing its legal name and profile, i.e. what other users are allowed to see.
+ * Built straight from the selected columns, no entity is hydrated and none of the JSON columns is parsed.
+ */
+public record AccountProjection(
+        Long id,
+        ZonedDateTime createdAt,
+        ZonedDateTime updatedAt,
+        PersonalInformation.LegalName legalName,
+        ProfileProjection profile
+) {
+
+    /**
+     * Flat constructor targeted by the JPQL constructor expressions, which cannot build nested objects.
+     */
+    public AccountProjection(Long id,
+                             ZonedDateTime createdAt,
+                             ZonedDateTime updatedAt,
+                             String firstName,
+                             String lastName,
+                             Long profileId,
+                             LocalDate birthDate,
+                             String profilePictureUrl,
+                             String about,
+                             Boolean showPreviousBookings,
+                             Boolean isEmailVerified,
+                             Boolean isPhoneNumberVerified,
+                             Boolean isGovernmentIdVerified) {
+        this(
+                id,
+                createdAt,
+                updatedAt,
+                new PersonalInformation.LegalName(firstName, lastName),
+                new ProfileProjection(profileId, birthDate, profilePictureUrl, about, showPreviousBookings, isEmailVerified, isPhoneNumberVerified, isGovernmentIdVerified)
+        );
+    }
+
+    public CursorPageRequest.Cursor cursor() {
+        return new CursorPageRequest.Cursor(this.createdAt, this.id);
+    }
+
+    public record ProfileProjection(
+            Long id,
+            LocalDate birthDate,
+            String profilePictureUrl,
+            String about,
+            Boolean showPreviousBookings,
+            Boolean isEmailVerified,
+            Boolean isPhoneNumberVerified,
+            Boolean isGovernmentIdVerified
+    ) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.cozy.account.core.model.projection;
+
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.shared.db.CursorPageRequest;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Government id awaiting review along with the account it belongs to, i.e. what a reviewer needs to take a decision.
+ *
+ * @param submittedAt           submission time of the government id, the review queue is ordered by it
+ * @param personalInformationId tie-breaker between government ids submitted at the same instant
+ */
+public record IdentityVerificationProjection(
+        Long accountId,
+        String userId,
+        String email,
+        PersonalInformation.LegalName legalName,
+        PersonalInformation.GovernmentId governmentId,
+        ZonedDateTime submittedAt,
+        Long personalInformationId
+) {
+
+    /**
+     * Flat constructor targeted by the JPQL constructor expressions, which cannot build nested objects.
+     */
+    public IdentityVerificationProjection(Long accountId,
+                                          String userId,
+                                          String email,
+                                          String firstName,
+                                          String lastName,
+                                          PersonalInformation.GovernmentId governmentId,
+                                          ZonedDateTime submittedAt,
+                                          Long personalInformationId) {
+        this(accountId, userId, email, new PersonalInformation.LegalName(firstName, lastName), governmentId, submittedAt, personalInformationId);
+    }
+
+    public CursorPageRequest.Cursor cursor() {
+        return new CursorPageRequest.Cursor(this.submittedAt, this.personalInformationId);
+    }
+}
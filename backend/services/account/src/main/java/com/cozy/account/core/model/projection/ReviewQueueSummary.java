@@ -0,0 +1,19 @@
+package com.cozy.account.core.model.projection;
+
+import com.cozy.account.core.model.entity.PersonalInformation;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Government ids in a given review status, as of the last refresh of the summary.
+ *
+ * @param oldestSubmittedAt submission time of the oldest government id in the status
+ * @param computedAt        time of the refresh the figures come from
+ */
+public record ReviewQueueSummary(
+        PersonalInformation.GovernmentIdStatus status,
+        long total,
+        ZonedDateTime oldestSubmittedAt,
+        ZonedDateTime computedAt
+) {
+}
@@ -0,0 +1,162 @@
+package com.cozy.account.core.model.util;
+
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.AccountStatus;
+import io.vavr.control.Try;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Facts the permission checks are made of, i.e. role, status, deleted and email verified, packed in a single
+ * {@code long} per account.
+ * <p>
+ * The cache is a direct mapped table of {@code long} slots: an account id maps to exactly one slot, holding the id
+ * and the facts of the account that last landed there. Lookups neither allocate nor lock, and the memory footprint is
+ * fixed at eight bytes per slot.
+ * <ul>
+ *     <li>A slot holds {@code (accountId + 1) << ID_SHIFT | epoch << FACT_BITS | facts}, an empty slot is {@code 0}.
+ *     Account ids beyond {@value #ID_BITS} bits are not cached.</li>
+ *     <li>The epoch counts quarters of the time to live, an entry loaded more than {@value #TICKS_PER_TTL} epochs ago
+ *     is a miss. An entry is thus never served once older than the time to live.</li>
+ *     <li>Invalidating an account overwrites its slot with a tombstone, a negative value unique to the invalidation.
+ *     A load only fills a slot still holding the value observed before the load, a load racing with a write can
+ *     therefore never bring the facts the write replaced back.</li>
+ * </ul>
+ * Every account write path must {@link #invalidate(long)} the account once the write is committed. Only the writes
+ * of this instance invalidate it, the time to live bounds how long the other instances answer from stale facts.
+ */
+public class AccountDecisionCache {
+    static final int FACT_BITS = 8;
+    static final int EPOCH_BITS = 23;
+    static final int ID_BITS = 32;
+    static final int TICKS_PER_TTL = 4;
+    static final long MAX_ACCOUNT_ID = (1L << ID_BITS) - 2;
+    private static final int ID_SHIFT = EPOCH_BITS + FACT_BITS;
+    private static final long FACT_MASK = (1L << FACT_BITS) - 1;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+
+    private static final int ROLE_SHIFT = 0;
+    private static final int STATUS_SHIFT = 2;
+    private static final long DELETED = 1L << 5;
+    private static final long EMAIL_VERIFIED = 1L << 6;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final long tickNanos;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity   number of slots, rounded up to the next power of two
+     * @param timeToLive how long the facts of an account are served before being loaded again
+     */
+    public AccountDecisionCache(int capacity, Duration timeToLive) {
+        this(capacity, timeToLive, System::nanoTime);
+    }
+
+    AccountDecisionCache(int capacity, Duration timeToLive, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must not be less than one!");
+        }
+        if (timeToLive.toNanos() < TICKS_PER_TTL) {
+            throw new IllegalArgumentException("Time to live is too short!");
+        }
+        this.slots = new AtomicLongArray(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = this.slots.length() - 1;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        this.tickNanos = timeToLive.toNanos() / TICKS_PER_TTL;
+    }
+
+    /**
+     * @param loader computes the facts of an account absent from the cache, see {@link #facts(Account)}
+     * @return the facts of the account
+     */
+    public Try<Long> get(long accountId, LongFunction<Try<Long>> loader) {
+        if (accountId < 0 || accountId > MAX_ACCOUNT_ID) {
+            return loader.apply(accountId);
+        }
+        int index = this.index(accountId);
+        long epoch = this.epoch();
+        long observed = this.slots.get(index);
+        // The epoch wraps after 2^23 quarters of the time to live, the age is computed modulo the wrap
+        if (observed > 0 && (observed >>> ID_SHIFT) == accountId + 1 && (epoch - (observed >>> FACT_BITS) & EPOCH_MASK) < TICKS_PER_TTL) {
+            this.hits.increment();
+            return Try.success(observed & FACT_MASK);
+        }
+        this.misses.increment();
+        return loader.apply(accountId)
+                .andThen(facts -> this.slots.compareAndSet(index, observed, pack(accountId, epoch, facts)));
+    }
+
+    public void invalidate(long accountId) {
+        if (accountId < 0 || accountId > MAX_ACCOUNT_ID) {
+            return;
+        }
+        this.slots.set(this.index(accountId), Long.MIN_VALUE | this.invalidations.incrementAndGet());
+    }
+
+    public long hitCount() {
+        return this.hits.sum();
+    }
+
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    public static long facts(Account account) {
+        long facts = 0;
+        if (Objects.nonNull(account.getRole())) {
+            facts |= (long) (account.getRole().ordinal() + 1) << ROLE_SHIFT;
+        }
+        if (Objects.nonNull(account.getStatus())) {
+            facts |= (long) (account.getStatus().ordinal() + 1) << STATUS_SHIFT;
+        }
+        if (account.isDeleted()) {
+            facts |= DELETED;
+        }
+        if (Objects.nonNull(account.getProfile()) && Boolean.TRUE.equals(account.getProfile().getIsEmailVerified())) {
+            facts |= EMAIL_VERIFIED;
+        }
+        return facts;
+    }
+
+    public static boolean hasRole(long facts, Account.Role role) {
+        return (facts >>> ROLE_SHIFT & 0b11) == role.ordinal() + 1;
+    }
+
+    public static boolean hasStatus(long facts, AccountStatus status) {
+        return (facts >>> STATUS_SHIFT & 0b111) == status.ordinal() + 1;
+    }
+
+    public static boolean isDeleted(long facts) {
+        return (facts & DELETED) != 0;
+    }
+
+    public static boolean isEmailVerified(long facts) {
+        return (facts & EMAIL_VERIFIED) != 0;
+    }
+
+    static long pack(long accountId, long epoch, long facts) {
+        return (accountId + 1) << ID_SHIFT | (epoch & EPOCH_MASK) << FACT_BITS | facts & FACT_MASK;
+    }
+
+    private long epoch() {
+        return (this.nanoClock.getAsLong() - this.origin) / this.tickNanos & EPOCH_MASK;
+    }
+
+    private int index(long accountId) {
+        // Spread sequential ids over the table
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & this.mask;
+    }
+}
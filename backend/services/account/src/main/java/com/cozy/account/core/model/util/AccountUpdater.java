@@ -2,9 +2,15 @@ package com.cozy.account.core.model.util;
 
 import com.cozy.account.core.model.entity.Account;
 import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.entity.Settings;
 import com.cozy.account.core.model.payload.internal.field.*;
 import com.cozy.shared.DateUtils;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 public record AccountUpdater(Account account) {
 
     public void patch(AccountField field) {
@@ -27,6 +33,29 @@ public record AccountUpdater(Account account) {
 
     }
 
+    /**
+     * Keys of the global settings document touched by the given fields, along with their new value.
+     *
+     * @return empty unless every field is a global settings field
+     */
+    public static Optional<Map<String, String>> globalSettingsPatch(List<AccountField> fields) {
+        Map<String, String> patch = new LinkedHashMap<>();
+        for (AccountField field : fields) {
+            switch (field) {
+                case PreferredLanguageField preferredLanguage ->
+                        patch.put(Settings.GlobalSettings.DEFAULT_LANGUAGE, preferredLanguage.getPreferredLanguage());
+                case PreferredCurrencyField preferredCurrency ->
+                        patch.put(Settings.GlobalSettings.DEFAULT_CURRENCY, preferredCurrency.getPreferredCurrency());
+                case PreferredTimeZoneField preferredTimeZone ->
+                        patch.put(Settings.GlobalSettings.DEFAULT_TIMEZONE, preferredTimeZone.getPreferredTimeZone());
+                default -> {
+                    return Optional.empty();
+                }
+            }
+        }
+        return patch.isEmpty() ? Optional.empty() : Optional.of(patch);
+    }
+
     private void patchAbout(AboutField about) {
         account.getProfile().setAbout(about.getAbout());
     }
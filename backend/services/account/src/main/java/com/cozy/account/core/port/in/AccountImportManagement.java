@@ -0,0 +1,34 @@
+package com.cozy.account.core.port.in;
+
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import io.vavr.control.Try;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Imports accounts in bulk, e.g. users migrated from a partner platform. An import is created from an uploaded file
+ * and run in the background.
+ */
+public interface AccountImportManagement {
+    /**
+     * Stage the file and store a pending import, nothing is imported before {@link #run(UUID)}.
+     */
+    Try<AccountImport> create(AccountImport.Format format, InputStream content);
+
+    /**
+     * Import the rows after the last checkpoint of the import until the end of the file.
+     *
+     * @return the import in its final state
+     */
+    Try<AccountImport> run(UUID importId);
+
+    Try<AccountImport> findById(UUID importId);
+
+    /**
+     * Page through the rejected and skipped rows of an import.
+     */
+    Try<List<AccountImportError>> findErrors(UUID importId, long afterRow, int limit);
+}
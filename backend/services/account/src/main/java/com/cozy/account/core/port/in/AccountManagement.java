@@ -6,13 +6,22 @@ package com.cozy.account.core.port.in;
 
 import com.cozy.account.core.model.entity.Account;
 import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.payload.internal.AccountPatchResult;
 import com.cozy.account.core.model.payload.internal.field.AccountField;
 import com.cozy.account.core.model.payload.internal.field.RegisterUserRequest;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import io.vavr.control.Try;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface AccountManagement extends ProfileManagement {
     /**
@@ -32,11 +41,57 @@ public interface AccountManagement extends ProfileManagement {
 
     Try<Void> makeUserHost(Long accountId);
 
+    /**
+     * Find the view of an account, i.e. its legal name and profile. Only the owner of the account and admins may see
+     * it, deleted and suspended accounts are not found.
+     *
+     * @param accountId the id of the account
+     * @return the projection of the account
+     */
+    Try<AccountProjection> findProjectionById(Long accountId);
+
+    /**
+     * Page through the view of the accounts that are not deleted, oldest first.
+     *
+     * @param pageRequest the cursor to start from and the page size
+     * @return the requested page of projections
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<CursorPage<AccountProjection>> findAllProjections(CursorPageRequest pageRequest);
+
+    /**
+     * Find the view of several accounts at once. The ids are resolved with a few {@code IN} queries, and ids already
+     * resolved during the current request are not queried again.
+     *
+     * @param accountIds the ids of the accounts, repeated ids are ignored
+     * @return the projections in the order of the ids, unknown and deleted accounts are left out
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<Map<Long, AccountProjection>> findProjectionsByIds(List<Long> accountIds);
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     Try<List<Account>> findAll();
 
     Try<List<Account>> findAll(Set<Long> accountIds);
 
+    /**
+     * Page through all the accounts, oldest first.
+     *
+     * @param pageRequest the cursor to start from and the page size
+     * @return the requested page of accounts
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<CursorPage<Account>> findAll(CursorPageRequest pageRequest);
+
+    /**
+     * Export all the accounts one at a time, memory usage does not depend on the number of accounts.
+     *
+     * @param consumer called once per account, in id order
+     * @return the number of exported accounts
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<Long> exportAll(Consumer<Account> consumer);
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     Try<Void> delete(Long accountId);
 
@@ -45,6 +100,16 @@ public interface AccountManagement extends ProfileManagement {
 
     Try<Account> patchAccount(Long accountId, List<AccountField> accountFields);
 
+    /**
+     * Patch many accounts in a single transaction. The fields of every account are validated together up front, an
+     * account with an invalid field is left untouched while the others are still patched.
+     *
+     * @param accountFields the fields to patch by account id
+     * @return one result per account id, in the order of the map
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<List<AccountPatchResult>> patchAccounts(Map<Long, List<AccountField>> accountFields);
+
     Try<Boolean> isUserAllowedToCreateListing(Long accountId);
 
     Try<Boolean> doesUserExists(Long entityId);
@@ -57,5 +122,38 @@ public interface AccountManagement extends ProfileManagement {
 
     Try<PersonalInformation.GovernmentId> verifyIdentityInformation(Long accountId, PersonalInformation.GovernmentIdStatus status, String rejectionReason);
 
+    /**
+     * Page through the government ids waiting for a review, oldest submission first.
+     *
+     * @param pageRequest the cursor to start from and the page size
+     * @return the requested page of the review queue
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<CursorPage<IdentityVerificationProjection>> findPendingIdentityVerifications(CursorPageRequest pageRequest);
+
+    /**
+     * Government ids by review status, as of the last {@link #refreshReviewQueueSummary()}.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    Try<List<ReviewQueueSummary>> findReviewQueueSummary();
+
+    /**
+     * Recompute the review queue summary. Meant for the maintenance tasks, which run without an authenticated user.
+     */
+    Try<List<ReviewQueueSummary>> refreshReviewQueueSummary();
+
+    /**
+     * Remove for good up to {@code limit} accounts soft deleted before the given time, suspended accounts are kept.
+     * Meant for the maintenance tasks, which run without an authenticated user.
+     *
+     * @return the number of removed accounts, {@code 0} once there is nothing left to purge
+     */
+    Try<Integer> purgeDeletedAccounts(ZonedDateTime deletedBefore, int limit);
+
+    /**
+     * @return the user ids of the most recently updated accounts, i.e. the users most likely to show up again soon
+     */
+    Try<List<String>> findRecentlyActiveUserIds(int limit);
+
     Try<Void> suspendAccount(Long accountId);
 }
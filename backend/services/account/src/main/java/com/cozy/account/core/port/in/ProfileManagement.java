@@ -2,6 +2,8 @@ package com.cozy.account.core.port.in;
 
 import com.cozy.account.core.model.entity.Profile;
 import com.cozy.account.core.model.payload.internal.field.UpdateProfileRequest;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import io.vavr.control.Try;
 
 import java.util.List;
@@ -12,4 +14,6 @@ public interface ProfileManagement {
     Try<Profile> updateProfileById(Long profileId, UpdateProfileRequest request);
 
     Try<List<Profile>> getAllProfiles();
+
+    Try<CursorPage<Profile>> getAllProfiles(CursorPageRequest pageRequest);
 }
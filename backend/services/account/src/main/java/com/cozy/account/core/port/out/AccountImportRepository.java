@@ -0,0 +1,24 @@
+package com.cozy.account.core.port.out;
+
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import io.vavr.control.Try;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountImportRepository {
+    Try<AccountImport> save(AccountImport accountImport);
+
+    Try<AccountImport> findById(UUID id);
+
+    /**
+     * Errors already stored for a row are kept, replaying a chunk does not report its rows twice.
+     */
+    Try<Void> saveErrors(UUID importId, List<AccountImportError> errors);
+
+    /**
+     * @return the errors of the import after the given row, in row order
+     */
+    Try<List<AccountImportError>> findErrors(UUID importId, long afterRow, int limit);
+}
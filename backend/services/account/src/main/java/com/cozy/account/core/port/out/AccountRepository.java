@@ -5,10 +5,19 @@
 package com.cozy.account.core.port.out;
 
 import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import io.vavr.control.Try;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  *
@@ -16,10 +25,31 @@ import java.util.Set;
 public interface AccountRepository {
     Try<Account> save(Account account);
 
+    /**
+     * Save the accounts in a single transaction, the inserts are sent as JDBC batches.
+     */
+    Try<List<Account>> saveAll(List<Account> accounts);
+
     Try<Account> findById(Long id);
 
     Try<Account> findByUserId(String userId);
 
+    /**
+     * Same as {@link #findById(Long)} but only the profile is loaded along with the account,
+     * the personal information must not be accessed. Read from the database, never from the second level cache, the
+     * account may have been suspended or deleted on another node.
+     */
+    Try<Account> findSummaryById(Long id);
+
+    Try<AccountProjection> findProjectionById(Long id);
+
+    Try<CursorPage<AccountProjection>> findProjections(CursorPageRequest pageRequest);
+
+    /**
+     * @return the projections of the given accounts in no particular order, unknown ids are left out
+     */
+    Try<List<AccountProjection>> findProjections(Set<Long> ids);
+
     Try<Void> delete(Account account);
 
     Try<Void> deleteById(Long id);
@@ -28,5 +58,62 @@ public interface AccountRepository {
 
     Try<List<Account>> findAll(Set<Long> accountIds);
 
+    Try<CursorPage<Account>> findAll(CursorPageRequest pageRequest);
+
+    /**
+     * Hand every account to the consumer without loading them all in memory.
+     *
+     * @param consumer called once per account, in id order
+     * @return the number of accounts visited
+     */
+    Try<Long> streamAll(Consumer<Account> consumer);
+
     Try<Boolean> existsByEmail(String email);
+
+    /**
+     * @return the given user ids that already belong to an account
+     */
+    Try<Set<String>> findExistingUserIds(Collection<String> userIds);
+
+    /**
+     * @return the given emails that already belong to an account
+     */
+    Try<Set<String>> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Set the given keys of the account global settings without rewriting the rest of the settings document.
+     *
+     * @param patch new value by settings key, see {@link com.cozy.account.core.model.entity.Settings.GlobalSettings}
+     */
+    Try<Void> patchGlobalSettings(Long accountId, Map<String, String> patch);
+
+    /**
+     * Apply the given updates in a single transaction. The accounts are loaded by chunks, each chunk is flushed with
+     * JDBC batching before the next one is loaded. When an update or a flush fails, the whole transaction is rolled
+     * back and none of the accounts is updated.
+     *
+     * @param updates   the update of each account by account id
+     * @param chunkSize number of accounts loaded and flushed together
+     * @return the ids of the updated accounts, ids without account are left out
+     */
+    Try<Set<Long>> updateAll(Map<Long, Consumer<Account>> updates, int chunkSize);
+
+    /**
+     * Remove for good, in a single transaction, up to {@code limit} accounts soft deleted before the given time along
+     * with their personal information and profile. Suspended accounts are kept, so that the user cannot register again.
+     *
+     * @return the ids of the removed accounts, empty once there is nothing left to purge
+     */
+    Try<List<Long>> purgeDeleted(ZonedDateTime deletedBefore, int limit);
+
+    /**
+     * @return the user ids of the accounts not deleted, most recently updated first
+     */
+    Try<List<String>> findRecentUserIds(int limit);
+
+    /**
+     * Page through the government ids in the given status, oldest submission first.
+     */
+    Try<CursorPage<IdentityVerificationProjection>> findIdentityVerifications(PersonalInformation.GovernmentIdStatus status,
+                                                                              CursorPageRequest pageRequest);
 }
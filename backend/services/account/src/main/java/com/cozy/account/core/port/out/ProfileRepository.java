@@ -5,6 +5,8 @@
 package com.cozy.account.core.port.out;
 
 import com.cozy.account.core.model.entity.Profile;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import io.vavr.control.Try;
 
 import java.util.List;
@@ -16,4 +18,5 @@ public interface ProfileRepository {
 
     Try<List<Profile>> findAll();
 
+    Try<CursorPage<Profile>> findAll(CursorPageRequest pageRequest);
 }
@@ -0,0 +1,16 @@
+package com.cozy.account.core.port.out;
+
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
+import io.vavr.control.Try;
+
+import java.util.List;
+
+public interface ReviewQueueRepository {
+    /**
+     * Count the government ids of the accounts not deleted by review status and replace the stored summary with the
+     * result, in a single statement.
+     */
+    Try<List<ReviewQueueSummary>> refresh();
+
+    Try<List<ReviewQueueSummary>> findAll();
+}
@@ -2,25 +2,56 @@ package com.cozy.account.infra;
 
 import com.cozy.account.core.exception.AccountNotFoundException;
 import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
 import com.cozy.account.core.port.out.AccountRepository;
 import com.cozy.account.infra.jpa.JpaAccountRepository;
 import com.cozy.account.infra.jpa.JpaPersonalInformationRepository;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import com.cozy.shared.db.DefaultTryCrudRepository;
+import com.cozy.shared.json.JsonCodecs;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import io.micrometer.observation.annotation.Observed;
 import io.vavr.control.Try;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+@Observed(name = "account.repository")
 public class AccountRepositoryImpl implements AccountRepository {
+    private static final JavaType JSON_OBJECT = TypeFactory.defaultInstance().constructMapType(Map.class, String.class, Object.class);
+
     private final DefaultTryCrudRepository<Account> crudRepositoryHelper;
     private final JpaAccountRepository repository;
     private final JpaPersonalInformationRepository personalInformationRepository;
+    private final EntityManager entityManager;
 
-    public AccountRepositoryImpl(JpaAccountRepository repository, JpaPersonalInformationRepository personalInformationRepository) {
-        this.crudRepositoryHelper = DefaultTryCrudRepository.of(repository, Account.class);
+    public AccountRepositoryImpl(JpaAccountRepository repository,
+                                 JpaPersonalInformationRepository personalInformationRepository,
+                                 EntityManager entityManager) {
+        this.crudRepositoryHelper = DefaultTryCrudRepository.of(repository, Account.class, entityManager)
+                .withFetchGraph(Account.FULL_GRAPH);
         this.repository = repository;
         this.personalInformationRepository = personalInformationRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -29,18 +60,77 @@ public class AccountRepositoryImpl implements AccountRepository {
     }
 
     @Override
+    public Try<List<Account>> saveAll(List<Account> accounts) {
+        return Try.of(() -> this.repository.saveAll(accounts));
+    }
+
+    /**
+     * The lookups by id and by user id go through the persistence context and the second level cache, the
+     * associations are initialized from their own cache regions before the transaction ends.
+     */
+    @Override
+    @Transactional(readOnly = true)
     public Try<Account> findById(Long id) {
-        return this.crudRepositoryHelper.findById(id);
+        return Try.of(() -> Optional.ofNullable(this.entityManager.find(Account.class, id)))
+                .filter(Optional::isPresent, () -> new AccountNotFoundException("Account with id %s not found".formatted(id)))
+                .map(Optional::get)
+                .andThen(account -> Hibernate.initialize(account.getPersonalInformation()))
+                .andThen(account -> Hibernate.initialize(account.getProfile()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Try<Account> findByUserId(String userId) {
-        return Try.of(() -> this.repository.findByUserId(userId))
+        return Try.of(() -> this.entityManager.unwrap(Session.class)
+                        .bySimpleNaturalId(Account.class)
+                        .loadOptional(userId))
                 .filter(Optional::isPresent, () -> new AccountNotFoundException("Account with userId %s not found".formatted(userId)))
+                .map(Optional::get)
+                .andThen(account -> Hibernate.initialize(account.getPersonalInformation()))
+                .andThen(account -> Hibernate.initialize(account.getProfile()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Try<Account> findSummaryById(Long id) {
+        Session session = this.entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        // Loads from the database and refreshes the local cache entries on the way
+        session.setCacheMode(CacheMode.REFRESH);
+        return Try.of(() -> Optional.ofNullable(this.entityManager.find(Account.class, id)))
+                .filter(Optional::isPresent, () -> new AccountNotFoundException("Account with id %s not found".formatted(id)))
+                .map(Optional::get)
+                .andThen(account -> Hibernate.initialize(account.getProfile()))
+                .andFinally(() -> session.setCacheMode(cacheMode));
+    }
+
+    @Override
+    public Try<AccountProjection> findProjectionById(Long id) {
+        return Try.of(() -> this.repository.findProjectionById(id))
+                .filter(Optional::isPresent, () -> new AccountNotFoundException("Account with id %s not found".formatted(id)))
                 .map(Optional::get);
     }
 
     @Override
+    public Try<CursorPage<AccountProjection>> findProjections(CursorPageRequest pageRequest) {
+        // One extra row tells whether there is a next page
+        Pageable pageable = Pageable.ofSize(pageRequest.getLimit() + 1);
+        return Try.of(() -> pageRequest.cursor()
+                        .map(cursor -> this.repository.findProjectionPageAfter(cursor.createdAt(), cursor.id(), pageable))
+                        .orElseGet(() -> this.repository.findProjectionPage(pageable)))
+                .map(rows -> CursorPage.of(rows, pageRequest.getLimit(), AccountProjection::cursor));
+    }
+
+    @Override
+    public Try<List<AccountProjection>> findProjections(Set<Long> ids) {
+        return Try.of(() -> this.repository.findProjectionsByIdIn(ids));
+    }
+
+    /**
+     * The account is loaded, flagged and saved in one transaction, its associations are initialized on a managed copy.
+     */
+    @Override
+    @Transactional
     public Try<Void> delete(Account account) {
         return this.findById(account.getId())
                 .andThen(acc -> acc.setDeleted(true))
@@ -49,6 +139,7 @@ public class AccountRepositoryImpl implements AccountRepository {
     }
 
     @Override
+    @Transactional
     public Try<Void> deleteById(Long accountId) {
         return this.findById(accountId)
                 .andThen(acc -> acc.setDeleted(true))
@@ -66,9 +157,103 @@ public class AccountRepositoryImpl implements AccountRepository {
         return Try.success(this.repository.findAllById(accountIds));
     }
 
+    @Override
+    public Try<CursorPage<Account>> findAll(CursorPageRequest pageRequest) {
+        return this.crudRepositoryHelper.findAll(pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Try<Long> streamAll(Consumer<Account> consumer) {
+        return Try.of(() -> {
+            AtomicLong visited = new AtomicLong();
+            try (Stream<Account> accounts = this.repository.streamAll()) {
+                accounts.forEach(account -> {
+                    consumer.accept(account);
+                    // Keep the persistence context from growing with the result set
+                    if (visited.incrementAndGet() % JpaAccountRepository.STREAM_FETCH_SIZE == 0) {
+                        this.entityManager.clear();
+                    }
+                });
+            }
+            return visited.get();
+        });
+    }
+
     @Override
     public Try<Boolean> existsByEmail(String email) {
         return Try.success(this.personalInformationRepository.countByEmail(email))
                 .map(count -> count > 0);
     }
+
+    @Override
+    public Try<Set<String>> findExistingUserIds(Collection<String> userIds) {
+        return userIds.isEmpty() ? Try.success(Set.of()) : Try.of(() -> this.repository.findExistingUserIds(userIds));
+    }
+
+    @Override
+    public Try<Set<String>> findExistingEmails(Collection<String> emails) {
+        return emails.isEmpty() ? Try.success(Set.of()) : Try.of(() -> this.personalInformationRepository.findExistingEmails(emails));
+    }
+
+    @Override
+    @Transactional
+    public Try<Void> patchGlobalSettings(Long accountId, Map<String, String> patch) {
+        return Try.of(() -> JsonCodecs.writer(JSON_OBJECT).writeValueAsString(patch))
+                .map(json -> this.repository.mergeGlobalSettings(accountId, json))
+                .filter(updated -> updated > 0, () -> new AccountNotFoundException("Account with id %s not found".formatted(accountId)))
+                .map(updated -> null);
+    }
+
+    @Override
+    @Transactional
+    public Try<Set<Long>> updateAll(Map<Long, Consumer<Account>> updates, int chunkSize) {
+        return Try.of(() -> {
+            List<Long> ids = List.copyOf(updates.keySet());
+            Set<Long> updated = new LinkedHashSet<>();
+            for (int start = 0; start < ids.size(); start += chunkSize) {
+                List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + chunkSize));
+                this.repository.findAllByIdIn(chunk).forEach(account -> {
+                    updates.get(account.getId()).accept(account);
+                    updated.add(account.getId());
+                });
+                // The dirty accounts of the chunk go out as batched updates, then leave the persistence context
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+            return updated;
+        }).onFailure(error -> {
+            // The failure never reaches the transaction proxy, without this the chunks flushed before it would commit
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        });
+    }
+
+    @Override
+    @Transactional
+    public Try<List<Long>> purgeDeleted(ZonedDateTime deletedBefore, int limit) {
+        return Try.of(() -> {
+            List<Long> ids = this.repository.findDeletedIds(deletedBefore, Pageable.ofSize(limit));
+            if (!ids.isEmpty()) {
+                // Removing the entities cascades to the personal information and profile and evicts the cached copies
+                this.repository.deleteAll(this.repository.findAllByIdIn(ids));
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public Try<List<String>> findRecentUserIds(int limit) {
+        return Try.of(() -> this.repository.findRecentUserIds(Pageable.ofSize(limit)));
+    }
+
+    @Override
+    public Try<CursorPage<IdentityVerificationProjection>> findIdentityVerifications(PersonalInformation.GovernmentIdStatus status,
+                                                                                     CursorPageRequest pageRequest) {
+        // One extra row tells whether there is a next page
+        Pageable pageable = Pageable.ofSize(pageRequest.getLimit() + 1);
+        return Try.of(() -> pageRequest.cursor()
+                        .map(cursor -> this.repository.findIdentityVerificationPageAfter(status, cursor.createdAt(), cursor.id(), pageable))
+                        .orElseGet(() -> this.repository.findIdentityVerificationPage(status, pageable)))
+                .map(rows -> CursorPage.of(rows, pageRequest.getLimit(), IdentityVerificationProjection::cursor));
+    }
 }
@@ -0,0 +1,117 @@
+package com.cozy.account.infra;
+
+import com.cozy.account.core.model.imports.AccountImport;
+import com.cozy.account.core.model.imports.AccountImportError;
+import com.cozy.account.core.port.out.AccountImportRepository;
+import io.vavr.control.Try;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores the imports next to the accounts, the import state is plain bookkeeping and needs no entity.
+ */
+@RequiredArgsConstructor
+public class JdbcAccountImportRepository implements AccountImportRepository {
+    private static final String UPSERT = """
+            INSERT INTO ACCOUNT_SERVICE.ACCOUNT_IMPORT (id, format, source, status, checkpoint, imported_rows,
+                                                        skipped_rows, failed_rows, last_error, created_at, updated_at)
+            VALUES (:id, :format, :source, :status, :checkpoint, :importedRows,
+                    :skippedRows, :failedRows, :lastError, :createdAt, :updatedAt)
+            ON CONFLICT (id) DO UPDATE SET status        = excluded.status,
+                                           checkpoint    = excluded.checkpoint,
+                                           imported_rows = excluded.imported_rows,
+                                           skipped_rows  = excluded.skipped_rows,
+                                           failed_rows   = excluded.failed_rows,
+                                           last_error    = excluded.last_error,
+                                           updated_at    = excluded.updated_at
+            """;
+    private static final String SELECT_BY_ID = "SELECT * FROM ACCOUNT_SERVICE.ACCOUNT_IMPORT WHERE id = :id";
+    private static final String INSERT_ERROR = """
+            INSERT INTO ACCOUNT_SERVICE.ACCOUNT_IMPORT_ERROR (import_id, row_index, user_id, message)
+            VALUES (:importId, :row, :userId, :message)
+            ON CONFLICT (import_id, row_index) DO NOTHING
+            """;
+    private static final String SELECT_ERRORS = """
+            SELECT row_index, user_id, message
+            FROM ACCOUNT_SERVICE.ACCOUNT_IMPORT_ERROR
+            WHERE import_id = :importId AND row_index > :afterRow
+            ORDER BY row_index
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Try<AccountImport> save(AccountImport accountImport) {
+        return Try.of(() -> this.jdbcTemplate.update(UPSERT, new MapSqlParameterSource()
+                        .addValue("id", accountImport.getId())
+                        .addValue("format", accountImport.getFormat().name())
+                        .addValue("source", accountImport.getSource())
+                        .addValue("status", accountImport.getStatus().name())
+                        .addValue("checkpoint", accountImport.getCheckpoint())
+                        .addValue("importedRows", accountImport.getImportedRows())
+                        .addValue("skippedRows", accountImport.getSkippedRows())
+                        .addValue("failedRows", accountImport.getFailedRows())
+                        .addValue("lastError", accountImport.getLastError())
+                        .addValue("createdAt", Timestamp.from(accountImport.getCreatedAt()))
+                        .addValue("updatedAt", Timestamp.from(accountImport.getUpdatedAt()))))
+                .map(updated -> accountImport);
+    }
+
+    @Override
+    public Try<AccountImport> findById(UUID id) {
+        return Try.of(() -> this.jdbcTemplate.query(SELECT_BY_ID, new MapSqlParameterSource("id", id), JdbcAccountImportRepository::map)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Account import %s not found".formatted(id))));
+    }
+
+    @Override
+    public Try<Void> saveErrors(UUID importId, List<AccountImportError> errors) {
+        if (errors.isEmpty()) {
+            return Try.success(null);
+        }
+        SqlParameterSource[] batch = errors.stream()
+                .map(error -> new MapSqlParameterSource()
+                        .addValue("importId", importId)
+                        .addValue("row", error.row())
+                        .addValue("userId", error.userId())
+                        .addValue("message", error.message()))
+                .toArray(SqlParameterSource[]::new);
+        return Try.run(() -> this.jdbcTemplate.batchUpdate(INSERT_ERROR, batch));
+    }
+
+    @Override
+    public Try<List<AccountImportError>> findErrors(UUID importId, long afterRow, int limit) {
+        return Try.of(() -> this.jdbcTemplate.query(SELECT_ERRORS, new MapSqlParameterSource()
+                        .addValue("importId", importId)
+                        .addValue("afterRow", afterRow)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new AccountImportError(rs.getLong("row_index"), rs.getString("user_id"), rs.getString("message"))));
+    }
+
+    private static AccountImport map(ResultSet rs, int rowNum) throws SQLException {
+        return AccountImport.builder()
+                .id(rs.getObject("id", UUID.class))
+                .format(AccountImport.Format.valueOf(rs.getString("format")))
+                .source(rs.getString("source"))
+                .status(AccountImport.Status.valueOf(rs.getString("status")))
+                .checkpoint(rs.getLong("checkpoint"))
+                .importedRows(rs.getLong("imported_rows"))
+                .skippedRows(rs.getLong("skipped_rows"))
+                .failedRows(rs.getLong("failed_rows"))
+                .lastError(rs.getString("last_error"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .build();
+    }
+}
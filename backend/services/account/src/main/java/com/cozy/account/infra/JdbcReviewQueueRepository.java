@@ -0,0 +1,71 @@
+package com.cozy.account.infra;
+
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.projection.ReviewQueueSummary;
+import com.cozy.account.core.port.out.ReviewQueueRepository;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The summary is derived data, it is computed by the database and read back as is.
+ */
+@RequiredArgsConstructor
+public class JdbcReviewQueueRepository implements ReviewQueueRepository {
+    // Seeks the (government_id_status, government_id_submitted_at) index, statuses gone from the queue are removed
+    private static final String REFRESH = """
+            WITH counts AS (SELECT pi.government_id_status             AS status,
+                                   COUNT(*)                            AS total,
+                                   MIN(pi.government_id_submitted_at) AS oldest_submitted_at
+                            FROM ACCOUNT_SERVICE.PERSONAL_INFORMATION pi
+                                     JOIN ACCOUNT_SERVICE.ACCOUNT a ON a.personal_information_id = pi.id
+                            WHERE pi.government_id_status IS NOT NULL
+                              AND a.deleted = false
+                            GROUP BY pi.government_id_status),
+                 removed AS (DELETE FROM ACCOUNT_SERVICE.REVIEW_QUEUE_SUMMARY
+                             WHERE status NOT IN (SELECT status FROM counts))
+            INSERT INTO ACCOUNT_SERVICE.REVIEW_QUEUE_SUMMARY (status, total, oldest_submitted_at, computed_at)
+            SELECT status, total, oldest_submitted_at, CURRENT_TIMESTAMP FROM counts
+            ON CONFLICT (status) DO UPDATE SET total               = excluded.total,
+                                               oldest_submitted_at = excluded.oldest_submitted_at,
+                                               computed_at         = excluded.computed_at
+            RETURNING status, total, oldest_submitted_at, computed_at
+            """;
+    private static final String SELECT_ALL = "SELECT * FROM ACCOUNT_SERVICE.REVIEW_QUEUE_SUMMARY ORDER BY status";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Try<List<ReviewQueueSummary>> refresh() {
+        return Try.of(() -> this.jdbcTemplate.query(REFRESH, EmptySqlParameterSource.INSTANCE, JdbcReviewQueueRepository::map));
+    }
+
+    @Override
+    public Try<List<ReviewQueueSummary>> findAll() {
+        return Try.of(() -> this.jdbcTemplate.query(SELECT_ALL, EmptySqlParameterSource.INSTANCE, JdbcReviewQueueRepository::map));
+    }
+
+    private static ReviewQueueSummary map(ResultSet rs, int rowNum) throws SQLException {
+        return new ReviewQueueSummary(
+                PersonalInformation.GovernmentIdStatus.valueOf(rs.getString("status")),
+                rs.getLong("total"),
+                toZonedDateTime(rs.getTimestamp("oldest_submitted_at")),
+                toZonedDateTime(rs.getTimestamp("computed_at"))
+        );
+    }
+
+    private static ZonedDateTime toZonedDateTime(Timestamp timestamp) {
+        return Optional.ofNullable(timestamp)
+                .map(value -> value.toInstant().atZone(ZoneOffset.UTC))
+                .orElse(null);
+    }
+}
@@ -5,8 +5,11 @@ import com.cozy.account.core.model.entity.Account;
 import com.cozy.account.core.model.entity.Profile;
 import com.cozy.account.core.port.out.ProfileRepository;
 import com.cozy.account.infra.jpa.JpaProfileRepository;
+import com.cozy.shared.db.CursorPage;
+import com.cozy.shared.db.CursorPageRequest;
 import com.cozy.shared.db.DefaultTryCrudRepository;
 import io.vavr.control.Try;
+import jakarta.persistence.EntityManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,8 +18,8 @@ public class ProfileRepositoryImpl implements ProfileRepository {
     private final DefaultTryCrudRepository<Profile> crudRepositoryHelper;
     private final JpaProfileRepository repository;
 
-    public ProfileRepositoryImpl(JpaProfileRepository repository) {
-        this.crudRepositoryHelper = DefaultTryCrudRepository.of(repository, Profile.class);
+    public ProfileRepositoryImpl(JpaProfileRepository repository, EntityManager entityManager) {
+        this.crudRepositoryHelper = DefaultTryCrudRepository.of(repository, Profile.class, entityManager);
         this.repository = repository;
     }
 
@@ -34,4 +37,9 @@ public class ProfileRepositoryImpl implements ProfileRepository {
     public Try<List<Profile>> findAll() {
         return this.crudRepositoryHelper.findAll();
     }
+
+    @Override
+    public Try<CursorPage<Profile>> findAll(CursorPageRequest pageRequest) {
+        return this.crudRepositoryHelper.findAll(pageRequest);
+    }
 }
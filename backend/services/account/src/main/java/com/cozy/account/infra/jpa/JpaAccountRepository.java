@@ -5,12 +5,165 @@
 package com.cozy.account.infra.jpa;
 
 import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.PersonalInformation;
+import com.cozy.account.core.model.projection.AccountProjection;
+import com.cozy.account.core.model.projection.IdentityVerificationProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface JpaAccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findByUserId(String userId);
+    int STREAM_FETCH_SIZE = 500;
+
+    String SELECT_PROJECTION = """
+                SELECT new com.cozy.account.core.model.projection.AccountProjection(
+                    a.id, a.createdAt, a.updatedAt,
+                    pi.legalName.firstName, pi.legalName.lastName,
+                    p.id, p.birthDate, p.profilePictureUrl, p.about, p.showPreviousBookings,
+                    p.isEmailVerified, p.isPhoneNumberVerified, p.isGovernmentIdVerified
+                )
+                FROM Account a
+                JOIN a.personalInformation pi
+                JOIN a.profile p
+                WHERE a.deleted = false
+            """;
+
+    String SELECT_IDENTITY_VERIFICATION = """
+                SELECT new com.cozy.account.core.model.projection.IdentityVerificationProjection(
+                    a.id, a.userId, pi.email,
+                    pi.legalName.firstName, pi.legalName.lastName,
+                    pi.governmentId, pi.governmentIdSubmittedAt, pi.id
+                )
+                FROM Account a
+                JOIN a.personalInformation pi
+            """;
+
+    @Override
+    @EntityGraph(Account.FULL_GRAPH)
+    Optional<Account> findById(Long id);
+
+    @EntityGraph(Account.FULL_GRAPH)
+    List<Account> findAllByIdIn(Collection<Long> ids);
+
+    @Query("SELECT a.userId FROM Account a WHERE a.userId IN :userIds")
+    Set<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+
+    /**
+     * Suspended accounts are soft deleted too but never purged, the user could otherwise register again once purged.
+     */
+    @Query("""
+                SELECT a.id FROM Account a
+                WHERE a.deleted = true AND a.status <> com.cozy.account.core.model.entity.AccountStatus.SUSPENDED
+                AND a.updatedAt < :deletedBefore
+                ORDER BY a.updatedAt, a.id
+            """)
+    List<Long> findDeletedIds(@Param("deletedBefore") ZonedDateTime deletedBefore, Pageable pageable);
+
+    @Query("SELECT a.userId FROM Account a WHERE a.deleted = false ORDER BY a.updatedAt DESC")
+    List<String> findRecentUserIds(Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "AND a.id = :id")
+    Optional<AccountProjection> findProjectionById(@Param("id") Long id);
+
+    @Query(SELECT_PROJECTION + "AND a.id IN :ids")
+    List<AccountProjection> findProjectionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * First page of the projections ordered by {@code (createdAt, id)}, the page size is taken from the pageable.
+     */
+    @Query(SELECT_PROJECTION + "ORDER BY a.createdAt, a.id")
+    List<AccountProjection> findProjectionPage(Pageable pageable);
+
+    /**
+     * Page of the projections ordered by {@code (createdAt, id)} starting right after the given position.
+     */
+    @Query(SELECT_PROJECTION + """
+                AND (a.createdAt > :createdAt OR (a.createdAt = :createdAt AND a.id > :id))
+                ORDER BY a.createdAt, a.id
+            """)
+    List<AccountProjection> findProjectionPageAfter(@Param("createdAt") ZonedDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * First page of the government ids in the given status ordered by {@code (submittedAt, id)}, the page size is taken
+     * from the pageable.
+     */
+    @Query(SELECT_IDENTITY_VERIFICATION + """
+                WHERE pi.governmentIdStatus = :status AND a.deleted = false
+                ORDER BY pi.governmentIdSubmittedAt, pi.id
+            """)
+    List<IdentityVerificationProjection> findIdentityVerificationPage(@Param("status") PersonalInformation.GovernmentIdStatus status,
+                                                                      Pageable pageable);
+
+    /**
+     * Page of the government ids in the given status ordered by {@code (submittedAt, id)} starting right after the
+     * given position.
+     */
+    @Query(SELECT_IDENTITY_VERIFICATION + """
+                WHERE pi.governmentIdStatus = :status AND a.deleted = false
+                AND (pi.governmentIdSubmittedAt > :submittedAt OR (pi.governmentIdSubmittedAt = :submittedAt AND pi.id > :id))
+                ORDER BY pi.governmentIdSubmittedAt, pi.id
+            """)
+    List<IdentityVerificationProjection> findIdentityVerificationPageAfter(@Param("status") PersonalInformation.GovernmentIdStatus status,
+                                                                           @Param("submittedAt") ZonedDateTime submittedAt,
+                                                                           @Param("id") Long id,
+                                                                           Pageable pageable);
+
+    /**
+     * Merge the given JSON object into the global settings of the account, in place. Keys absent from the patch are
+     * left untouched, an account without settings gets them created. The query space limits the second level cache
+     * eviction to the accounts.
+     *
+     * @param patch JSON object of the keys to set
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "account_service.account"))
+    @Query(nativeQuery = true, value = """
+                UPDATE account_service.account
+                SET settings = jsonb_set(COALESCE(settings, CAST('{}' AS jsonb)), CAST('{global}' AS text[]),
+                                         COALESCE(settings -> 'global', CAST('{}' AS jsonb)) || CAST(:patch AS jsonb)),
+                    updated_at = CURRENT_TIMESTAMP
+                WHERE id = :id AND deleted = false
+            """)
+    int mergeGlobalSettings(@Param("id") Long id, @Param("patch") String patch);
+
+    @Override
+    @EntityGraph(Account.FULL_GRAPH)
+    List<Account> findAll();
+
+    @Override
+    @EntityGraph(Account.FULL_GRAPH)
+    List<Account> findAllById(Iterable<Long> ids);
+
+    /**
+     * Stream every account along with its personal information and profile. The rows are pulled from a server side
+     * cursor {@link #STREAM_FETCH_SIZE} at a time, the caller must hold a transaction and close the stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+                SELECT a FROM Account a
+                JOIN FETCH a.personalInformation
+                JOIN FETCH a.profile
+                ORDER BY a.id
+            """)
+    Stream<Account> streamAll();
 }
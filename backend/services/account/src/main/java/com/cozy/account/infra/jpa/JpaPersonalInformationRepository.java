@@ -5,6 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface JpaPersonalInformationRepository extends JpaRepository<PersonalInformation, Long> {
 
     @Query("""
@@ -12,4 +15,7 @@ public interface JpaPersonalInformationRepository extends JpaRepository<Personal
             """)
     int countByEmail(@Param("email") String email);
 
+    @Query("SELECT p.email FROM PersonalInformation p WHERE p.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
 }
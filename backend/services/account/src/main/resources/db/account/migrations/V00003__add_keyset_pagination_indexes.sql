@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset dtn1999:add_keyset_pagination_indexes
+--comment Support the (created_at, id) seek used by the paginated account and profile listings
+
+CREATE INDEX idx_account_created_at_id ON ACCOUNT (created_at, id);
+CREATE INDEX idx_profile_created_at_id ON PROFILE (created_at, id);
+
+--rollback DROP INDEX idx_profile_created_at_id;
+--rollback DROP INDEX idx_account_created_at_id;
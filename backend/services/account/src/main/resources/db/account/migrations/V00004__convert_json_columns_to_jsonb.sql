@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset dtn1999:convert_json_columns_to_jsonb
+--comment Store settings and government_id as jsonb so single keys can be updated and indexed in place
+
+ALTER TABLE ACCOUNT ALTER COLUMN settings TYPE JSONB USING settings::jsonb;
+ALTER TABLE PERSONAL_INFORMATION ALTER COLUMN government_id TYPE JSONB USING NULLIF(government_id, '')::jsonb;
+
+--rollback ALTER TABLE PERSONAL_INFORMATION ALTER COLUMN government_id TYPE TEXT USING government_id::text;
+--rollback ALTER TABLE ACCOUNT ALTER COLUMN settings TYPE TEXT USING settings::text;
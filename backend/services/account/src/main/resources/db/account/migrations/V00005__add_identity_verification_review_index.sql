@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset dtn1999:add_identity_verification_review_index
+--comment Expose the government id status and submission time as columns so the review queue seeks an index instead of parsing every government_id
+--comment createdAt is written by Jackson as decimal epoch seconds, see JsonCodecs
+
+ALTER TABLE PERSONAL_INFORMATION
+    ADD COLUMN government_id_status       VARCHAR(190) GENERATED ALWAYS AS (government_id ->> 'status') STORED,
+    ADD COLUMN government_id_submitted_at TIMESTAMPTZ GENERATED ALWAYS AS (to_timestamp((government_id ->> 'createdAt')::double precision)) STORED;
+
+CREATE INDEX idx_personal_information_government_id_review ON PERSONAL_INFORMATION (government_id_status, government_id_submitted_at, id);
+
+--rollback DROP INDEX idx_personal_information_government_id_review;
+--rollback ALTER TABLE PERSONAL_INFORMATION DROP COLUMN government_id_submitted_at, DROP COLUMN government_id_status;
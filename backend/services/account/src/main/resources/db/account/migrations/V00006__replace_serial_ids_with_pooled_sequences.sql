@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset dtn1999:replace_serial_ids_with_pooled_sequences
+--comment Let Hibernate allocate ids 50 at a time instead of reading them back from every insert, which is what keeps inserts from being batched
+--comment The sequence names follow the Hibernate implicit naming, <EntityName>_SEQ, turned into snake case by the physical naming strategy, and the increment must match the allocation size of BaseEntity
+
+CREATE SEQUENCE account_seq INCREMENT BY 50;
+SELECT setval('account_seq', COALESCE((SELECT MAX(id) FROM ACCOUNT), 0) + 50, false);
+ALTER TABLE ACCOUNT ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE account_id_seq;
+
+CREATE SEQUENCE profile_seq INCREMENT BY 50;
+SELECT setval('profile_seq', COALESCE((SELECT MAX(id) FROM PROFILE), 0) + 50, false);
+ALTER TABLE PROFILE ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE profile_id_seq;
+
+CREATE SEQUENCE personal_information_seq INCREMENT BY 50;
+SELECT setval('personal_information_seq', COALESCE((SELECT MAX(id) FROM PERSONAL_INFORMATION), 0) + 50, false);
+ALTER TABLE PERSONAL_INFORMATION ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE personal_information_id_seq;
+
+--rollback CREATE SEQUENCE account_id_seq OWNED BY ACCOUNT.id;
+--rollback SELECT setval('account_id_seq', COALESCE((SELECT MAX(id) FROM ACCOUNT), 0) + 1, false);
+--rollback ALTER TABLE ACCOUNT ALTER COLUMN id SET DEFAULT nextval('account_id_seq');
+--rollback DROP SEQUENCE account_seq;
+--rollback CREATE SEQUENCE profile_id_seq OWNED BY PROFILE.id;
+--rollback SELECT setval('profile_id_seq', COALESCE((SELECT MAX(id) FROM PROFILE), 0) + 1, false);
+--rollback ALTER TABLE PROFILE ALTER COLUMN id SET DEFAULT nextval('profile_id_seq');
+--rollback DROP SEQUENCE profile_seq;
+--rollback CREATE SEQUENCE personal_information_id_seq OWNED BY PERSONAL_INFORMATION.id;
+--rollback SELECT setval('personal_information_id_seq', COALESCE((SELECT MAX(id) FROM PERSONAL_INFORMATION), 0) + 1, false);
+--rollback ALTER TABLE PERSONAL_INFORMATION ALTER COLUMN id SET DEFAULT nextval('personal_information_id_seq');
+--rollback DROP SEQUENCE personal_information_seq;
@@ -0,0 +1,32 @@
+--liquibase formatted sql
+
+--changeset dtn1999:create_account_import_tables
+--comment State of the bulk account imports, an interrupted import resumes after the last committed row
+CREATE TABLE ACCOUNT_IMPORT
+(
+    id            UUID                     NOT NULL PRIMARY KEY,
+    format        VARCHAR(190)             NOT NULL,
+    source        TEXT                     NOT NULL,
+    status        VARCHAR(190)             NOT NULL,
+    checkpoint    BIGINT                   NOT NULL DEFAULT 0,
+    imported_rows BIGINT                   NOT NULL DEFAULT 0,
+    skipped_rows  BIGINT                   NOT NULL DEFAULT 0,
+    failed_rows   BIGINT                   NOT NULL DEFAULT 0,
+    last_error    TEXT,
+    created_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--comment Rows of an import that were rejected or skipped, one entry per row
+CREATE TABLE ACCOUNT_IMPORT_ERROR
+(
+    import_id UUID   NOT NULL REFERENCES ACCOUNT_IMPORT (id) ON DELETE CASCADE,
+    row_index BIGINT NOT NULL,
+    user_id   TEXT,
+    message   TEXT   NOT NULL,
+
+    PRIMARY KEY (import_id, row_index)
+);
+
+--rollback DROP TABLE ACCOUNT_IMPORT_ERROR;
+--rollback DROP TABLE ACCOUNT_IMPORT;
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset dtn1999:create_review_queue_summary_table
+--comment Government ids by review status, refreshed by a background task so the back office does not count them on every visit
+CREATE TABLE REVIEW_QUEUE_SUMMARY
+(
+    status              VARCHAR(190)             NOT NULL PRIMARY KEY,
+    total               BIGINT                   NOT NULL,
+    oldest_submitted_at TIMESTAMP WITH TIME ZONE,
+    computed_at         TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+--rollback DROP TABLE REVIEW_QUEUE_SUMMARY;
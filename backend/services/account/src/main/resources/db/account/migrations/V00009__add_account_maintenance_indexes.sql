@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset dtn1999:add_account_maintenance_indexes
+--comment Serve the purge of the soft deleted accounts and the lookup of the recently updated accounts without a full scan
+CREATE INDEX idx_account_deleted_updated_at ON ACCOUNT (updated_at, id) WHERE deleted = true;
+CREATE INDEX idx_account_active_updated_at ON ACCOUNT (updated_at DESC) WHERE deleted = false;
+
+--rollback DROP INDEX idx_account_active_updated_at;
+--rollback DROP INDEX idx_account_deleted_updated_at;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset dtn1999:exclude_suspended_accounts_from_purge_index
+--comment Suspended accounts are soft deleted as well but never purged, the ban must outlive the retention period
+DROP INDEX idx_account_deleted_updated_at;
+CREATE INDEX idx_account_deleted_updated_at ON ACCOUNT (updated_at, id) WHERE deleted = true AND status <> 'SUSPENDED';
+
+--rollback DROP INDEX idx_account_deleted_updated_at;
+--rollback CREATE INDEX idx_account_deleted_updated_at ON ACCOUNT (updated_at, id) WHERE deleted = true;
@@ -0,0 +1,161 @@
+package com.cozy.account.core.model.util;
+
+import com.cozy.account.core.model.entity.Account;
+import com.cozy.account.core.model.entity.AccountStatus;
+import com.cozy.account.core.model.entity.Profile;
+import io.vavr.control.Try;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountDecisionCacheTest {
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    private final AtomicLong nanos = new AtomicLong(42);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testFactsRoundTrip() {
+        Account account = Account.builder()
+                .role(Account.Role.HOST)
+                .status(AccountStatus.SUSPENDED)
+                .profile(Profile.builder().isEmailVerified(true).build())
+                .build();
+        account.setDeleted(true);
+
+        long facts = AccountDecisionCache.facts(account);
+
+        assertTrue(AccountDecisionCache.hasRole(facts, Account.Role.HOST));
+        assertFalse(AccountDecisionCache.hasRole(facts, Account.Role.ADMIN));
+        assertTrue(AccountDecisionCache.hasStatus(facts, AccountStatus.SUSPENDED));
+        assertFalse(AccountDecisionCache.hasStatus(facts, AccountStatus.ACTIVE));
+        assertTrue(AccountDecisionCache.isDeleted(facts));
+        assertTrue(AccountDecisionCache.isEmailVerified(facts));
+        assertEquals(0, facts >>> AccountDecisionCache.FACT_BITS);
+    }
+
+    @Test
+    void testPackedSlotKeepsIdEpochAndFactsApart() {
+        long slot = AccountDecisionCache.pack(AccountDecisionCache.MAX_ACCOUNT_ID, -1, 0xFF);
+
+        assertTrue(slot > 0, "A filled slot must never look like a tombstone");
+        assertEquals(AccountDecisionCache.MAX_ACCOUNT_ID + 1, slot >>> AccountDecisionCache.EPOCH_BITS + AccountDecisionCache.FACT_BITS);
+        assertEquals((1L << AccountDecisionCache.EPOCH_BITS) - 1, slot >>> AccountDecisionCache.FACT_BITS & (1L << AccountDecisionCache.EPOCH_BITS) - 1);
+        assertEquals(0xFF, slot & 0xFF);
+    }
+
+    @Test
+    void testHitDoesNotLoad() {
+        AccountDecisionCache cache = this.cache(16);
+
+        assertEquals(7L, cache.get(1, this.loader(7)).get());
+        assertEquals(7L, cache.get(1, this.loader(8)).get());
+
+        assertEquals(1, this.loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testIdsSharingASlotEvictEachOther() {
+        AccountDecisionCache cache = this.cache(1);
+
+        cache.get(1, this.loader(1));
+        cache.get(2, this.loader(2));
+
+        assertEquals(1L, cache.get(1, this.loader(1)).get());
+        assertEquals(3, this.loads.get());
+    }
+
+    @Test
+    void testIdsOutOfRangeAreNotCached() {
+        AccountDecisionCache cache = this.cache(16);
+
+        cache.get(AccountDecisionCache.MAX_ACCOUNT_ID + 1, this.loader(1));
+        cache.get(AccountDecisionCache.MAX_ACCOUNT_ID + 1, this.loader(1));
+        cache.get(-1, this.loader(1));
+
+        assertEquals(3, this.loads.get());
+    }
+
+    @Test
+    void testTombstoneForcesReload() {
+        AccountDecisionCache cache = this.cache(16);
+        cache.get(1, this.loader(1));
+
+        cache.invalidate(1);
+
+        assertEquals(2L, cache.get(1, this.loader(2)).get());
+        assertEquals(2L, cache.get(1, this.loader(3)).get());
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    void testLoadLosingTheRaceToAnInvalidationIsNotCached() {
+        AccountDecisionCache cache = this.cache(16);
+
+        // The account is written, and invalidated, while its previous facts are being loaded
+        Try<Long> facts = cache.get(1, accountId -> {
+            this.loads.incrementAndGet();
+            cache.invalidate(accountId);
+            return Try.success(1L);
+        });
+
+        assertEquals(1L, facts.get());
+        assertEquals(2L, cache.get(1, this.loader(2)).get());
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    void testLoadLosingTheRaceToAnotherLoadKeepsTheWinner() {
+        AccountDecisionCache cache = this.cache(16);
+
+        cache.get(1, accountId -> {
+            this.loads.incrementAndGet();
+            cache.get(accountId, this.loader(2));
+            return Try.success(1L);
+        });
+
+        assertEquals(2L, cache.get(1, this.loader(3)).get());
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        AccountDecisionCache cache = this.cache(16);
+
+        assertTrue(cache.get(1, accountId -> Try.failure(new IllegalStateException())).isFailure());
+
+        assertEquals(1L, cache.get(1, this.loader(1)).get());
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    void testEntryExpiresWithinTimeToLive() {
+        AccountDecisionCache cache = this.cache(16);
+        cache.get(1, this.loader(1));
+
+        this.nanos.addAndGet(TIME_TO_LIVE.toNanos() / 2);
+        assertEquals(1L, cache.get(1, this.loader(2)).get());
+
+        this.nanos.addAndGet(TIME_TO_LIVE.toNanos() / 2);
+        assertEquals(2L, cache.get(1, this.loader(2)).get());
+        assertEquals(2, this.loads.get());
+    }
+
+    private AccountDecisionCache cache(int capacity) {
+        return new AccountDecisionCache(capacity, TIME_TO_LIVE, this.nanos::get);
+    }
+
+    private LongFunction<Try<Long>> loader(long facts) {
+        return accountId -> {
+            this.loads.incrementAndGet();
+            return Try.success(facts);
+        };
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Setter;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -68,5 +70,19 @@ public class ServiceConfigurationProperties {
         private boolean enabled;
         @JsonProperty("liquibase")
         private LiquibaseProperties liquibase;
+        /**
+         * Hibernate second level cache regions of the service, by region name without the service prefix.
+         */
+        @JsonProperty("cacheRegions")
+        private Map<String, CacheRegion> cacheRegions = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class CacheRegion {
+        @JsonProperty("maximumSize")
+        private long maximumSize = 10_000;
+        @JsonProperty("timeToLive")
+        private Duration timeToLive = Duration.ofMinutes(10);
     }
 }
@@ -1,15 +1,203 @@
 package com.cozy.shared;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.List;
+
 @Getter
 @Setter
 @ConfigurationProperties(prefix = "system")
 public class SystemConfigurationProperties {
     @JsonProperty("liquibase")
     private LiquibaseProperties liquibase;
+    @JsonProperty("maintenance")
+    private Maintenance maintenance = new Maintenance();
+    @JsonProperty("httpExchanges")
+    private HttpExchanges httpExchanges = new HttpExchanges();
+    @JsonProperty("tracing")
+    private Tracing tracing = new Tracing();
+    @JsonProperty("virtualThreads")
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    /**
+     * Recurring tasks run by db-scheduler, a single instance runs each execution. The schedules are 6 fields cron
+     * expressions. Due executions are picked by descending priority.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Maintenance {
+        @JsonProperty("accountPurge")
+        private AccountPurge accountPurge = new AccountPurge();
+        @JsonProperty("userInfoCacheWarmUp")
+        private UserInfoCacheWarmUp userInfoCacheWarmUp = new UserInfoCacheWarmUp();
+        @JsonProperty("reviewQueueSummary")
+        private ReviewQueueSummary reviewQueueSummary = new ReviewQueueSummary();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountPurge {
+        @JsonProperty("schedule")
+        private String schedule = "0 0 3 * * *";
+        @JsonProperty("priority")
+        private int priority = 10;
+        /**
+         * Soft deleted accounts are removed for good once deleted for this long, suspended accounts are never removed.
+         */
+        @JsonProperty("retention")
+        private Duration retention = Duration.ofDays(30);
+        /**
+         * Accounts removed per transaction.
+         */
+        @JsonProperty("chunkSize")
+        private int chunkSize = 100;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserInfoCacheWarmUp {
+        /**
+         * Run on every instance, the user info cache is local to each of them.
+         */
+        @JsonProperty("schedule")
+        private String schedule = "0 */10 * * * *";
+        /**
+         * Number of recently active users loaded, best kept below {@code auth0.userInfoCache.maximumSize}.
+         */
+        @JsonProperty("users")
+        private int users = 1000;
+        /**
+         * Maximum number of Auth0 calls in flight at once.
+         */
+        @JsonProperty("concurrency")
+        private int concurrency = 4;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReviewQueueSummary {
+        @JsonProperty("schedule")
+        private String schedule = "0 */5 * * * *";
+        @JsonProperty("priority")
+        private int priority = 50;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HttpExchanges {
+        /**
+         * Exchanges waiting to be recorded, rounded up to the next power of two. Exchanges beyond are dropped.
+         */
+        @JsonProperty("bufferSize")
+        private int bufferSize = 8192;
+        /**
+         * Most recent exchanges kept for the {@code httpexchanges} actuator endpoint.
+         */
+        @JsonProperty("capacity")
+        private int capacity = 100;
+        /**
+         * Fraction of the successful exchanges logged and kept, client and server errors are always kept.
+         */
+        @JsonProperty("successSampleRate")
+        private double successSampleRate = 0.1;
+        /**
+         * Logged as {@code ******}, compared ignoring case.
+         */
+        @JsonProperty("redactedHeaders")
+        private List<String> redactedHeaders = List.of("authorization", "proxy-authorization", "cookie", "set-cookie", "x-api-key");
+        /**
+         * How long the recorder thread waits before looking at an empty buffer again.
+         */
+        @JsonProperty("drainInterval")
+        private Duration drainInterval = Duration.ofMillis(50);
+    }
+
+    /**
+     * Traces are sampled up front at a fixed rate, the others are still exported when they fail or are slow.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tracing {
+        /**
+         * Traces sampled up front per second, whatever their outcome.
+         */
+        @JsonProperty("tracesPerSecond")
+        private int tracesPerSecond = 10;
+        /**
+         * Traces not sampled up front are still exported when their local root span took at least this long.
+         */
+        @JsonProperty("slowThreshold")
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        /**
+         * Traces not sampled up front held until their local root span ends, the spans of the others are dropped.
+         */
+        @JsonProperty("maxPendingTraces")
+        private int maxPendingTraces = 10_000;
+        @JsonProperty("maxSpansPerTrace")
+        private int maxSpansPerTrace = 256;
+        /**
+         * Held traces older than this are dropped to make room, their local root span ended first or never will.
+         */
+        @JsonProperty("maxPendingAge")
+        private Duration maxPendingAge = Duration.ofMinutes(1);
+        /**
+         * Ant patterns of the request paths never observed, neither traced nor timed.
+         */
+        @JsonProperty("excludedPaths")
+        private List<String> excludedPaths = List.of("/**/actuator/**");
+        /**
+         * Ant patterns of the routes, as in the {@code uri} tag, whose traces are always exported.
+         */
+        @JsonProperty("alwaysSampledRoutes")
+        private List<String> alwaysSampledRoutes = List.of();
+        /**
+         * Leave out the observations of the security filter chain, about a dozen spans per request.
+         */
+        @JsonProperty("excludeSpringSecurity")
+        private boolean excludeSpringSecurity = true;
+    }
+
+    /**
+     * Pinning detection, only active along with {@code spring.threads.virtual.enabled}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VirtualThreads {
+        /**
+         * Pinnings shorter than this are neither counted nor logged.
+         */
+        @JsonProperty("pinningThreshold")
+        private Duration pinningThreshold = Duration.ofMillis(20);
+        /**
+         * Frames logged per pinning.
+         */
+        @JsonProperty("pinningStackDepth")
+        private int pinningStackDepth = 12;
+        /**
+         * Distinct call sites logged at warn level, the others at debug level.
+         */
+        @JsonProperty("maxReportedPinningSites")
+        private int maxReportedPinningSites = 100;
+    }
 }
@@ -0,0 +1,69 @@
+package com.cozy.shared.caching;
+
+import com.cozy.shared.ServiceConfigurationProperties;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second level cache backed by Caffeine through JCache.
+ * <p>
+ * Every region declared under {@code services.<service>.cacheRegions.<region>} is created up front, bounded in size and
+ * time to live, as {@code <service>.<region>}. The entities name their region accordingly, e.g.
+ * {@code @Cache(region = "account.profile")}. Hibernate creates a region nobody configured on its own with a warning,
+ * such a region is unbounded.
+ * <p>
+ * The statistics of every region are published under the region name, e.g. {@code cache.gets{cache="account.profile"}}.
+ */
+@Slf4j
+public class SecondLevelCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(ServiceConfigurationProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        Objects.requireNonNullElse(properties.getServices(), Map.<String, ServiceConfigurationProperties.ServiceConfiguration>of())
+                .forEach((service, configuration) -> configuration.getCacheRegions().forEach((region, settings) -> {
+                    String regionName = "%s.%s".formatted(service, region);
+                    if (Objects.isNull(cacheManager.getCache(regionName))) {
+                        cacheManager.createCache(regionName, regionConfiguration(settings));
+                        log.info("Second level cache region {} created, maximum size {}, time to live {}", regionName, settings.getMaximumSize(), settings.getTimeToLive());
+                    }
+                }));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> secondLevelCacheManager.getCacheNames()
+                .forEach(regionName -> JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(regionName)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(ServiceConfigurationProperties.CacheRegion settings) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(settings.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(settings.getTimeToLive().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -26,9 +26,14 @@ import java.time.ZonedDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class BaseEntity implements Serializable {
     public static final String ID_ATTRIBUTE = "id";
+    public static final String CREATED_AT_ATTRIBUTE = "createdAt";
 
+    /**
+     * Taken from the {@code <EntityName>_SEQ} sequence of the entity schema, in snake case once through the physical
+     * naming strategy, e.g. {@code personal_information_seq}, 50 ids per round-trip with the pooled optimizer. Unlike identity columns, the ids are known before the insert, which lets Hibernate batch the inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id")
     protected Long id;
 
@@ -0,0 +1,119 @@
+package com.cozy.shared.db;
+
+import io.vavr.control.Try;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Resolves entities by key with as few queries as possible, in the spirit of DataLoader.
+ * <ul>
+ *     <li>Keys are queued and resolved together by the next {@link #dispatch()}, in chunks of at most
+ *     {@code maxBatchSize} keys, i.e. one {@code IN} query per chunk.</li>
+ *     <li>A key is resolved at most once per loader. Repeated keys and keys resolved by an earlier dispatch, found or
+ *     not, are answered from memory.</li>
+ * </ul>
+ * A loader remembers everything it resolved and never sees later writes, it is meant to live as long as a single
+ * request.
+ *
+ * @param <K> key type
+ * @param <V> loaded type
+ */
+public class BatchLoader<K, V> {
+    private final Function<Set<K>, Try<? extends Collection<V>>> batchFunction;
+    private final Function<V, K> keyOf;
+    private final int maxBatchSize;
+    private final Map<K, Optional<V>> resolved = new HashMap<>();
+    private final Set<K> queued = new LinkedHashSet<>();
+    // Held across the batch queries, a monitor would pin the virtual thread waiting on the database
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param batchFunction loads the values of a set of keys, keys without value are simply left out of the result
+     * @param keyOf         extracts the key of a loaded value
+     * @param maxBatchSize  maximum number of keys handed to a single {@code batchFunction} call
+     */
+    public BatchLoader(Function<Set<K>, Try<? extends Collection<V>>> batchFunction, Function<V, K> keyOf, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must not be less than one!");
+        }
+        this.batchFunction = batchFunction;
+        this.keyOf = keyOf;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queue the keys that are not resolved yet, nothing is loaded before the next {@link #dispatch()}.
+     */
+    public void queue(Collection<K> keys) {
+        this.lock.lock();
+        try {
+            keys.stream()
+                    .filter(Objects::nonNull)
+                    .filter(key -> !this.resolved.containsKey(key))
+                    .forEach(this.queued::add);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Resolve every queued key. Chunks resolved before a failing one are kept, the keys of the failing chunk and the
+     * following ones stay queued.
+     */
+    public Try<Void> dispatch() {
+        this.lock.lock();
+        try {
+            return Try.run(() -> {
+                List<K> pending = new ArrayList<>(this.queued);
+                for (int start = 0; start < pending.size(); start += this.maxBatchSize) {
+                    Set<K> chunk = new LinkedHashSet<>(pending.subList(start, Math.min(pending.size(), start + this.maxBatchSize)));
+                    Collection<V> values = this.batchFunction.apply(chunk).get();
+                    chunk.forEach(key -> this.resolved.put(key, Optional.empty()));
+                    values.forEach(value -> this.resolved.put(this.keyOf.apply(value), Optional.of(value)));
+                    this.queued.removeAll(chunk);
+                }
+            });
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Resolve the given keys along with any key queued before.
+     *
+     * @return the values found, in the order of the keys; keys without value and repeated keys are left out
+     */
+    public Try<Map<K, V>> loadMany(Collection<K> keys) {
+        this.lock.lock();
+        try {
+            this.queue(keys);
+            return this.dispatch()
+                    .map(v -> {
+                        Map<K, V> values = new LinkedHashMap<>();
+                        keys.stream()
+                                .filter(Objects::nonNull)
+                                .forEach(key -> this.resolved.getOrDefault(key, Optional.empty())
+                                        .ifPresent(value -> values.putIfAbsent(key, value)));
+                        return values;
+                    });
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public Try<Optional<V>> load(K key) {
+        return this.loadMany(List.of(key))
+                .map(values -> Optional.ofNullable(values.get(key)));
+    }
+}
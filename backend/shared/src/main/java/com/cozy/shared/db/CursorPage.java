@@ -0,0 +1,45 @@
+package com.cozy.shared.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a keyset paginated result set. {@link #nextCursor} is {@code null} on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<D> {
+    private int limit;
+    private boolean hasNext;
+    private String nextCursor;
+    private List<D> data;
+
+    /**
+     * Build a page out of the rows fetched for a request. Repositories are expected to fetch {@code limit + 1} rows,
+     * the extra row only tells whether there is a next page and is never returned.
+     *
+     * @param rows     the fetched rows, at most {@code limit + 1}
+     * @param limit    the requested page size
+     * @param cursorOf extracts the cursor of the last returned row
+     */
+    public static <D> CursorPage<D> of(List<D> rows, int limit, Function<D, CursorPageRequest.Cursor> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<D> data = hasNext ? List.copyOf(rows.subList(0, limit)) : List.copyOf(rows);
+        String nextCursor = hasNext ? cursorOf.apply(data.getLast()).encode() : null;
+        return new CursorPage<>(limit, hasNext, nextCursor, data);
+    }
+
+    public <R> CursorPage<R> map(Function<? super D, ? extends R> mapper) {
+        List<R> mapped = this.data.stream()
+                .<R>map(mapper)
+                .toList();
+        return new CursorPage<>(this.limit, this.hasNext, this.nextCursor, mapped);
+    }
+}
@@ -0,0 +1,119 @@
+package com.cozy.shared.db;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A keyset (a.k.a. seek) pagination request ordered by {@code (created_at, id)}.
+ * Unlike {@link OffsetBasedPageRequest}, the cost of fetching a page does not grow with its position in the result set,
+ * the database seeks straight to the first row after the {@link Cursor} using the {@code (created_at, id)} index.
+ */
+@ToString
+@EqualsAndHashCode
+public class CursorPageRequest {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final Cursor cursor;
+    @Getter
+    private final int limit;
+
+    public CursorPageRequest(Cursor cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must not be less than one!");
+        }
+
+        if (limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must not be greater than %s!".formatted(MAX_LIMIT));
+        }
+
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Build a page request from the raw values received by the API layer.
+     *
+     * @param token the opaque continuation token, {@code null} or blank to request the first page
+     * @param limit the maximum number of items to return, {@code null} to use {@link #DEFAULT_LIMIT}
+     * @return the page request
+     * @throws InvalidCursorException if the token is not a token issued by {@link Cursor#encode()}
+     */
+    public static CursorPageRequest of(String token, Integer limit) {
+        Cursor cursor = token == null || token.isBlank() ? null : Cursor.decode(token);
+        return new CursorPageRequest(cursor, Objects.requireNonNullElse(limit, DEFAULT_LIMIT));
+    }
+
+    public static CursorPageRequest first(int limit) {
+        return new CursorPageRequest(null, limit);
+    }
+
+    public Optional<Cursor> cursor() {
+        return Optional.ofNullable(this.cursor);
+    }
+
+    public CursorPageRequest next(Cursor cursor) {
+        return new CursorPageRequest(cursor, this.limit);
+    }
+
+    /**
+     * Position of the last row of a page. The next page starts strictly after it.
+     *
+     * @param createdAt creation timestamp of the last row
+     * @param id        id of the last row, used as tie-breaker between rows created at the same instant
+     */
+    public record Cursor(ZonedDateTime createdAt, Long id) {
+        private static final String SEPARATOR = "|";
+
+        public Cursor {
+            Objects.requireNonNull(createdAt, "createdAt must not be null");
+            Objects.requireNonNull(id, "id must not be null");
+        }
+
+        public static Cursor of(BaseEntity entity) {
+            return new Cursor(entity.getCreatedAt(), entity.getId());
+        }
+
+        /**
+         * @return an url safe token that clients must treat as opaque
+         */
+        public String encode() {
+            String raw = this.createdAt.toInstant() + SEPARATOR + this.id;
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            String raw;
+            try {
+                raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException("Malformed cursor %s".formatted(token), e);
+            }
+
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException("Malformed cursor %s".formatted(token));
+            }
+
+            try {
+                Instant createdAt = Instant.parse(raw.substring(0, separatorIndex));
+                long id = Long.parseLong(raw.substring(separatorIndex + 1));
+                return new Cursor(createdAt.atZone(ZoneOffset.UTC), id);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidCursorException("Malformed cursor %s".formatted(token), e);
+            }
+        }
+    }
+}
@@ -1,18 +1,50 @@
 package com.cozy.shared.db;
 
 import io.vavr.control.Try;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
-@RequiredArgsConstructor(staticName = "of")
 public class DefaultTryCrudRepository<T extends BaseEntity> implements TryCrudRepository<T> {
     private final JpaRepository<T, Long> repository;
     private final Class<T> entityClass;
+    private final EntityManager entityManager;
+    private final String fetchGraph;
+
+    private DefaultTryCrudRepository(JpaRepository<T, Long> repository, Class<T> entityClass, EntityManager entityManager, String fetchGraph) {
+        this.repository = repository;
+        this.entityClass = entityClass;
+        this.entityManager = Objects.requireNonNull(entityManager, "entityManager");
+        this.fetchGraph = fetchGraph;
+    }
+
+    /**
+     * @param entityManager runs the keyset pagination queries
+     */
+    public static <T extends BaseEntity> DefaultTryCrudRepository<T> of(JpaRepository<T, Long> repository, Class<T> entityClass, EntityManager entityManager) {
+        return new DefaultTryCrudRepository<>(repository, entityClass, entityManager, null);
+    }
+
+    /**
+     * @param fetchGraph name of the entity graph applied to the queries built by this helper,
+     *                   the queries of the underlying repository must declare their own
+     * @return a copy of this helper using the given entity graph
+     */
+    public DefaultTryCrudRepository<T> withFetchGraph(String fetchGraph) {
+        return new DefaultTryCrudRepository<>(this.repository, this.entityClass, this.entityManager, fetchGraph);
+    }
 
     @Override
     public Try<T> save(T entity) {
@@ -32,6 +64,36 @@ public class DefaultTryCrudRepository<T extends BaseEntity> implements TryCrudRe
         return Try.of(this.repository::findAll);
     }
 
+    @Override
+    public Try<CursorPage<T>> findAll(CursorPageRequest pageRequest) {
+        return Try.of(() -> {
+            CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+            CriteriaQuery<T> query = builder.createQuery(this.entityClass);
+            Root<T> root = query.from(this.entityClass);
+            Path<ZonedDateTime> createdAt = root.get(BaseEntity.CREATED_AT_ATTRIBUTE);
+            Path<Long> id = root.get(BaseEntity.ID_ATTRIBUTE);
+
+            // (created_at, id) > (:createdAt, :id), spelled out since row value comparison is not part of JPQL
+            pageRequest.cursor()
+                    .ifPresent(cursor -> query.where(builder.or(
+                            builder.greaterThan(createdAt, cursor.createdAt()),
+                            builder.and(
+                                    builder.equal(createdAt, cursor.createdAt()),
+                                    builder.greaterThan(id, cursor.id())
+                            )
+                    )));
+            query.orderBy(builder.asc(createdAt), builder.asc(id));
+
+            TypedQuery<T> typedQuery = this.entityManager.createQuery(query)
+                    .setMaxResults(pageRequest.getLimit() + 1);
+            if (this.fetchGraph != null) {
+                typedQuery.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, this.entityManager.getEntityGraph(this.fetchGraph));
+            }
+            List<T> rows = typedQuery.getResultList();
+            return CursorPage.of(rows, pageRequest.getLimit(), CursorPageRequest.Cursor::of);
+        });
+    }
+
     @Override
     @Transactional
     public Try<Void> deleteById(Long id, boolean hardDelete) {
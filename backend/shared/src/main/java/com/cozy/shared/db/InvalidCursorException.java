@@ -0,0 +1,10 @@
+package com.cozy.shared.db;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Thrown when a continuation token handed back by a client cannot be decoded into a {@link CursorPageRequest.Cursor}.
+ */
+@StandardException
+public class InvalidCursorException extends IllegalArgumentException {
+}
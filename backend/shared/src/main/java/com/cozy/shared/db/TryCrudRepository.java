@@ -11,5 +11,13 @@ public interface TryCrudRepository<T extends BaseEntity> {
 
     Try<List<T>> findAll();
 
+    /**
+     * Fetch a page of entities ordered by {@code (createdAt, id)} starting right after the request's cursor.
+     *
+     * @param pageRequest the page to fetch
+     * @return the page, along with the continuation token of the next one
+     */
+    Try<CursorPage<T>> findAll(CursorPageRequest pageRequest);
+
     Try<Void> deleteById(Long id, boolean hardDelete);
 }
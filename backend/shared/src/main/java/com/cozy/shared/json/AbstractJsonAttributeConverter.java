@@ -0,0 +1,62 @@
+package com.cozy.shared.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores an attribute as a JSON document in a text column. Attributes mapped to a {@code jsonb} column use
+ * {@code @JdbcTypeCode(SqlTypes.JSON)} instead, and go through {@link JsonCodecsFormatMapper}.
+ * <p>
+ * The attribute type is captured from the type argument of the subclass, generic attribute types such as
+ * {@code List<Address>} are deserialized into their declared element types:
+ * <pre>{@code
+ * @Converter
+ * public class AddressesConverter extends AbstractJsonAttributeConverter<List<Address>> {
+ * }
+ * }</pre>
+ * The reader and writer come from {@link JsonCodecs} and are resolved when the converter is instantiated, i.e. while
+ * the persistence unit is bootstrapped.
+ *
+ * @param <T> attribute type
+ */
+public abstract class AbstractJsonAttributeConverter<T> implements AttributeConverter<T, String> {
+    private final JavaType type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    protected AbstractJsonAttributeConverter() {
+        JavaType[] typeParameters = TypeFactory.defaultInstance().findTypeParameters(this.getClass(), AbstractJsonAttributeConverter.class);
+        if (typeParameters.length != 1 || typeParameters[0].hasRawClass(Object.class)) {
+            throw new IllegalStateException("%s must bind the attribute type of %s"
+                    .formatted(this.getClass().getName(), AbstractJsonAttributeConverter.class.getSimpleName()));
+        }
+        this.type = typeParameters[0];
+        JsonCodecs.warmUp(this.type);
+        this.reader = JsonCodecs.reader(this.type);
+        this.writer = JsonCodecs.writer(this.type);
+    }
+
+    @Override
+    public String convertToDatabaseColumn(T attribute) {
+        try {
+            return this.writer.writeValueAsString(attribute);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to convert %s to JSON".formatted(this.type), e);
+        }
+    }
+
+    @Override
+    public T convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return this.reader.readValue(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to convert JSON to %s".formatted(this.type), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cozy.shared.json;
+
+import com.cozy.shared.MapperUtils;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide registry of {@link ObjectReader} and {@link ObjectWriter} instances, one pair per Java type.
+ * <p>
+ * All of them come from a single {@link ObjectMapper}, so the (de)serializers Jackson builds for a type are built once
+ * and shared. Readers and writers prefetch their root (de)serializer when they are created, asking for them during
+ * startup moves that cost out of the first request.
+ * <p>
+ * The Blackbird module, which replaces reflection based property access with generated lambdas, is registered unless
+ * the {@value #BLACKBIRD_PROPERTY} system property is set to {@code false}.
+ */
+@Slf4j
+@UtilityClass
+public class JsonCodecs {
+    public static final String BLACKBIRD_PROPERTY = "cozy.json.blackbird.enabled";
+
+    private final ObjectMapper objectMapper = createObjectMapper();
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public ObjectReader reader(JavaType type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    public ObjectWriter writer(JavaType type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    public JavaType constructType(Type type) {
+        return objectMapper.constructType(type);
+    }
+
+    /**
+     * Build the reader and writer of the given types ahead of their first use.
+     */
+    public void warmUp(JavaType... types) {
+        for (JavaType type : types) {
+            reader(type);
+            writer(type);
+            log.debug("JSON codecs of {} warmed up", type);
+        }
+    }
+
+    private ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = MapperUtils.createObjectMapper();
+        if (Boolean.parseBoolean(System.getProperty(BLACKBIRD_PROPERTY, "true"))) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+}
@@ -0,0 +1,43 @@
+package com.cozy.shared.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.format.FormatMapper;
+
+/**
+ * Hibernate {@link FormatMapper} reading and writing the {@code SqlTypes.JSON} attributes with the shared
+ * {@link JsonCodecs} readers and writers, instead of the object mapper Hibernate would create on its own.
+ * <p>
+ * Registered through the {@code hibernate.type.json_format_mapper} property.
+ */
+public class JsonCodecsFormatMapper implements FormatMapper {
+
+    @Override
+    public <T> T fromString(CharSequence charSequence, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+        if (javaType.getJavaType() == String.class) {
+            return javaType.cast(charSequence.toString());
+        }
+        try {
+            return JsonCodecs.reader(constructType(javaType)).readValue(charSequence.toString());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not deserialize JSON to %s".formatted(javaType.getJavaType()), e);
+        }
+    }
+
+    @Override
+    public <T> String toString(T value, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+        if (javaType.getJavaType() == String.class) {
+            return (String) value;
+        }
+        try {
+            return JsonCodecs.writer(constructType(javaType)).writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize %s to JSON".formatted(javaType.getJavaType()), e);
+        }
+    }
+
+    private static com.fasterxml.jackson.databind.JavaType constructType(JavaType<?> javaType) {
+        return JsonCodecs.constructType(javaType.getJavaType());
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,9 +16,72 @@ public class Auth0Properties {
     private String domain;
     private String clientId;
     private String clientSecret;
+    /**
+     * Upper bound of a single call to the management API made off the caller thread.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    /**
+     * The management API token is renewed in the background once it expires within this margin.
+     */
+    private Duration tokenRenewalMargin = Duration.ofMinutes(5);
+    private UserInfoCache userInfoCache = new UserInfoCache();
+    private RoleCatalogueSettings roleCatalogue = new RoleCatalogueSettings();
+    private RoleMigrationSettings roleMigration = new RoleMigrationSettings();
 
     public String getRequestTokenUri() {
         return "https://%s/api/v2/".formatted(domain);
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserInfoCache {
+        private long maximumSize = 10_000;
+        /**
+         * Entries are dropped once this old, whether they have been accessed in the meantime or not.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+        /**
+         * Entries older than this are reloaded in the background on their next access.
+         */
+        private Duration refreshAfterWrite = Duration.ofMinutes(5);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleCatalogueSettings {
+        /**
+         * The role catalogue is reloaded from Auth0 on the first lookup after it got this old.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+        /**
+         * Minimum delay between two reloads triggered by a lookup of an unknown role.
+         */
+        private Duration missRefreshInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleMigrationSettings {
+        /**
+         * Users read from Auth0 per page, the migration is checkpointed after each page.
+         */
+        private int pageSize = 100;
+        /**
+         * Users sent in a single role assignment request.
+         */
+        private int usersPerRequest = 50;
+        /**
+         * Maximum number of requests in flight at once.
+         */
+        private int concurrency = 4;
+        /**
+         * Sustained request rate used until Auth0 reports its own limits in the response headers.
+         */
+        private double requestsPerSecond = 2;
+        private int burst = 10;
+    }
+
 }
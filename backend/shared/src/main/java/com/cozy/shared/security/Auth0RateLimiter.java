@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import com.auth0.exception.RateLimitException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by the callers of the Auth0 management API.
+ * <p>
+ * It starts from the configured rate and is then kept in sync with the {@code x-ratelimit-*} headers Auth0 returns on
+ * every response: the remaining tokens never exceed what Auth0 reports, and once the bucket is reported empty no token
+ * is handed out before the reported reset time.
+ */
+@Slf4j
+class Auth0RateLimiter {
+    static final String LIMIT_HEADER = "x-ratelimit-limit";
+    static final String REMAINING_HEADER = "x-ratelimit-remaining";
+    static final String RESET_HEADER = "x-ratelimit-reset";
+
+    private final double maxTokensPerNano;
+    private double capacity;
+    private double tokens;
+    private double tokensPerNano;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+
+    Auth0RateLimiter(double requestsPerSecond, int burst) {
+        this.capacity = burst;
+        this.tokens = burst;
+        this.maxTokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokensPerNano = this.maxTokensPerNano;
+        this.lastRefillNanos = System.nanoTime();
+        this.blockedUntilNanos = this.lastRefillNanos;
+    }
+
+    /**
+     * Block until a request may be sent.
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = this.tryAcquire(System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the time to wait before trying again
+     */
+    synchronized long tryAcquire(long nowNanos) {
+        if (nowNanos < this.blockedUntilNanos) {
+            return this.blockedUntilNanos - nowNanos;
+        }
+        this.refill(nowNanos);
+        if (this.tokens >= 1) {
+            this.tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - this.tokens) / this.tokensPerNano));
+    }
+
+    void onResponse(Map<String, String> headers) {
+        Long limit = header(headers, LIMIT_HEADER);
+        Long remaining = header(headers, REMAINING_HEADER);
+        Long reset = header(headers, RESET_HEADER);
+        if (Objects.nonNull(limit) && Objects.nonNull(remaining) && Objects.nonNull(reset)) {
+            this.synchronize(limit, remaining, reset, System.nanoTime(), System.currentTimeMillis());
+        }
+    }
+
+    void onRateLimited(RateLimitException e) {
+        log.warn("Auth0 rate limit reached, pausing until {}", e.getReset());
+        this.synchronize(e.getLimit(), 0, e.getReset(), System.nanoTime(), System.currentTimeMillis());
+    }
+
+    synchronized void synchronize(long limit, long remaining, long resetEpochSeconds, long nowNanos, long nowMillis) {
+        this.refill(nowNanos);
+        long untilResetNanos = Math.max(0, TimeUnit.MILLISECONDS.toNanos(TimeUnit.SECONDS.toMillis(resetEpochSeconds) - nowMillis));
+        if (limit > 0) {
+            this.capacity = limit;
+        }
+        this.tokens = Math.min(this.tokens, remaining);
+        if (remaining <= 0) {
+            this.blockedUntilNanos = Math.max(this.blockedUntilNanos, nowNanos + untilResetNanos);
+        }
+        // Auth0 refills the bucket completely by the reset time, follow that pace without exceeding the configured rate
+        if (untilResetNanos > 0 && limit > remaining) {
+            this.tokensPerNano = Math.min(this.maxTokensPerNano, (double) (limit - remaining) / untilResetNanos);
+        } else {
+            this.tokensPerNano = this.maxTokensPerNano;
+        }
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - this.lastRefillNanos;
+        if (elapsed > 0) {
+            this.tokens = Math.min(this.capacity, this.tokens + elapsed * this.tokensPerNano);
+            this.lastRefillNanos = nowNanos;
+        }
+    }
+
+    private static Long header(Map<String, String> headers, String name) {
+        if (Objects.isNull(headers)) {
+            return null;
+        }
+        return headers.entrySet().stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()))
+                .findFirst()
+                .map(Map.Entry::getValue)
+                .map(value -> {
+                    try {
+                        return Long.parseLong(value.trim());
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+}
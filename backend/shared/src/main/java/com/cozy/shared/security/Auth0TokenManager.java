@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import com.auth0.json.auth.TokenHolder;
+import io.vavr.CheckedFunction0;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the management API access token together with its expiry.
+ * <ul>
+ *     <li>An expired or missing token is fetched on the calling thread. Concurrent callers wait for a single request
+ *     instead of each fetching their own token.</li>
+ *     <li>Once the token enters its renewal margin, callers keep getting it while a new one is fetched in the
+ *     background, the token is never observed expired under regular traffic.</li>
+ *     <li>A token rejected by Auth0 is replaced, unless another thread already did it.</li>
+ * </ul>
+ */
+@Slf4j
+class Auth0TokenManager {
+    private final CheckedFunction0<TokenHolder> tokenRequest;
+    private final Duration renewalMargin;
+    private final Clock clock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean renewing = new AtomicBoolean();
+
+    private volatile AccessToken current;
+
+    Auth0TokenManager(CheckedFunction0<TokenHolder> tokenRequest, Duration renewalMargin) {
+        this(tokenRequest, renewalMargin, Clock.systemUTC());
+    }
+
+    Auth0TokenManager(CheckedFunction0<TokenHolder> tokenRequest, Duration renewalMargin, Clock clock) {
+        this.tokenRequest = tokenRequest;
+        this.renewalMargin = renewalMargin;
+        this.clock = clock;
+    }
+
+    String getToken() throws Throwable {
+        AccessToken token = this.current;
+        Instant now = this.clock.instant();
+        if (Objects.isNull(token) || token.isExpiredAt(now)) {
+            return this.refresh(token).value();
+        }
+        if (token.isExpiredAt(now.plus(this.renewalMargin))) {
+            this.renewInBackground(token);
+        }
+        return token.value();
+    }
+
+    /**
+     * Replace the given token, Auth0 refused it.
+     *
+     * @return a token other than the rejected one
+     */
+    String replace(String rejectedToken) throws Throwable {
+        AccessToken token = this.current;
+        if (Objects.nonNull(token) && !token.value().equals(rejectedToken)) {
+            return token.value();
+        }
+        return this.refresh(token).value();
+    }
+
+    private void renewInBackground(AccessToken seen) {
+        if (!this.renewing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("auth0-token-renewal").start(() -> {
+            try {
+                this.refresh(seen);
+            } catch (Throwable e) {
+                log.warn("Background renewal of the Auth0 management API token failed, it is retried on the next call. Reason: {}", e.getMessage());
+            } finally {
+                this.renewing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Fetch a new token unless the one seen by the caller has been replaced while it was waiting for the lock.
+     */
+    private AccessToken refresh(AccessToken seen) throws Throwable {
+        this.refreshLock.lock();
+        try {
+            AccessToken token = this.current;
+            if (token != seen && Objects.nonNull(token) && !token.isExpiredAt(this.clock.instant())) {
+                return token;
+            }
+            Instant requestedAt = this.clock.instant();
+            TokenHolder holder = this.tokenRequest.apply();
+            AccessToken fresh = new AccessToken(holder.getAccessToken(), requestedAt.plusSeconds(holder.getExpiresIn()));
+            log.debug("Auth0 management API token renewed, valid until {}", fresh.expiresAt());
+            this.current = fresh;
+            return fresh;
+        } finally {
+            this.refreshLock.unlock();
+        }
+    }
+
+    private record AccessToken(String value, Instant expiresAt) {
+        boolean isExpiredAt(Instant instant) {
+            return !instant.isBefore(this.expiresAt);
+        }
+    }
+}
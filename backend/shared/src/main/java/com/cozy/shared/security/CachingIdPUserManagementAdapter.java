@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Caches the user info resolved by the underlying adapter.
+ * <ul>
+ *     <li>Failures are never cached, the next call for the same user goes to the identity provider again.</li>
+ *     <li>Entries older than the refresh delay are reloaded in the background on access while the current value keeps
+ *     being served, hot users never wait for the identity provider.</li>
+ *     <li>Concurrent misses for the same user share a single upstream call.</li>
+ * </ul>
+ * The cache statistics (hits, misses, load time) are published under the {@value #USER_INFO_CACHE} cache name.
+ */
+@Slf4j
+public class CachingIdPUserManagementAdapter implements IdPUserManagementAdapter, MeterBinder {
+    public static final String USER_INFO_CACHE = "idp-user-info";
+
+    private final IdPUserManagementAdapter delegate;
+    private final AsyncLoadingCache<String, UserInfo> userInfoCache;
+
+    public CachingIdPUserManagementAdapter(IdPUserManagementAdapter delegate, Auth0Properties.UserInfoCache properties, Executor executor) {
+        this.delegate = delegate;
+        this.userInfoCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .executor(executor)
+                .recordStats()
+                // A failed load completes the future exceptionally, Caffeine then drops the entry instead of caching it.
+                // A failed refresh keeps serving the previous value.
+                .buildAsync((userId, loadExecutor) -> this.delegate.getUserInfoAsync(userId));
+    }
+
+    @Override
+    public Try<UserInfo> getUserInfo(String userId) {
+        return Try.of(() -> this.getUserInfoAsync(userId).join())
+                .recoverWith(CompletionException.class, e -> Try.failure(e.getCause()))
+                .onFailure(e -> log.error("Failed to resolve user info of user {}. Reason: {}", userId, e.getMessage()));
+    }
+
+    @Override
+    public CompletableFuture<UserInfo> getUserInfoAsync(String userId) {
+        return this.userInfoCache.get(userId);
+    }
+
+    @Override
+    public Try<Void> assignRoleToUser(String userId, String role) {
+        return this.delegate.assignRoleToUser(userId, role)
+                // The roles are part of the cached user info
+                .andThen(() -> this.evict(userId));
+    }
+
+    /**
+     * Load the given users ahead of their next request, users already cached are left to the background refresh. At
+     * most {@code concurrency} users are loaded at once, a user that cannot be resolved is skipped.
+     *
+     * @return the number of users loaded
+     */
+    public Try<Integer> warmUp(List<String> userIds, int concurrency) {
+        return Try.of(() -> {
+            List<String> missing = userIds.stream()
+                    .filter(userId -> Objects.isNull(this.userInfoCache.getIfPresent(userId)))
+                    .toList();
+            int loaded = 0;
+            for (int start = 0; start < missing.size(); start += concurrency) {
+                List<CompletableFuture<UserInfo>> loads = missing.subList(start, Math.min(missing.size(), start + concurrency))
+                        .stream()
+                        .map(this.userInfoCache::get)
+                        .toList();
+                for (CompletableFuture<UserInfo> load : loads) {
+                    loaded += Try.of(load::join).isSuccess() ? 1 : 0;
+                }
+            }
+            return loaded;
+        });
+    }
+
+    public void evict(String userId) {
+        this.userInfoCache.synchronous().invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.userInfoCache.synchronous(), USER_INFO_CACHE);
+    }
+}
@@ -5,43 +5,75 @@
 package com.cozy.shared.security;
 
 import com.auth0.json.mgmt.roles.Role;
-import io.vavr.API;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import io.vavr.control.Try;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 
+import java.time.Duration;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
-@RequiredArgsConstructor
 public class DefaultIdPUserManagementAdapter implements IdPUserManagementAdapter {
-    private static final String USER_INFO_CACHE = "user-info";
+    public static final String USER_INFO_OBSERVATION = "idp.user.info";
+
     private final ManagementApiAdapter managementAPIAdapter;
+    private final Executor executor;
+    private final Duration requestTimeout;
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * @param executor            runs the Auth0 calls, each of them blocks its thread for a full round-trip
+     * @param requestTimeout      upper bound of every single Auth0 call issued by {@link #getUserInfoAsync(String)}
+     * @param observationRegistry the adapter is not a bean, the user info lookups are observed as
+     *                            {@value #USER_INFO_OBSERVATION} here rather than through {@code @Observed}
+     */
+    public DefaultIdPUserManagementAdapter(ManagementApiAdapter managementAPIAdapter, Executor executor, Duration requestTimeout,
+                                           ObservationRegistry observationRegistry) {
+        this.managementAPIAdapter = managementAPIAdapter;
+        this.executor = executor;
+        this.requestTimeout = requestTimeout;
+        this.observationRegistry = observationRegistry;
+    }
 
     @Override
-    @Cacheable(value = USER_INFO_CACHE, key = "#p0")
     public Try<UserInfo> getUserInfo(String userId) {
+        return Try.of(() -> this.getUserInfoAsync(userId).join())
+                .recoverWith(CompletionException.class, e -> Try.failure(e.getCause()));
+    }
+
+    /**
+     * The user and its roles are fetched concurrently, the latency is the one of the slowest call instead of the sum of both.
+     */
+    @Override
+    public CompletableFuture<UserInfo> getUserInfoAsync(String userId) {
         log.debug("Getting user info from Auth0 with userId: {}", userId);
-        Try<UserInfo> user = this.managementAPIAdapter.getUserInfo(userId);
-        Try<Set<Role>> roles = this.managementAPIAdapter.findAllRoleByUserId(userId);
+        Observation observation = Observation.start(USER_INFO_OBSERVATION, this.observationRegistry);
+        CompletableFuture<UserInfo> user = this.call("user", userId, () -> this.managementAPIAdapter.getUserInfo(userId));
+        CompletableFuture<Set<Role>> roles = this.call("roles", userId, () -> this.managementAPIAdapter.findAllRoleByUserId(userId));
 
-        return API.For(user, roles)
-                .yield((userInfo, rolesSet) -> {
+        return user.thenCombine(roles, (userInfo, rolesSet) -> {
                     Set<String> roleNames = rolesSet.stream().map(Role::getName).collect(Collectors.toSet());
                     userInfo.setRoles(roleNames);
-//                    return roleIds
-//                            .stream()
-//                            .map(this.managementAPIAdapter::findPermissionsByRoleId)
-//                            .map(Try::get)
-//                            .map(permissionsSet -> {
-//                                userInfo.setPermissions(permissionsSet);
-//                                return userInfo;
-//                            });
                     return userInfo;
                 })
-                .onSuccess(userInfo -> log.debug("User info from Auth0: {}", userInfo));
+                .whenComplete((userInfo, e) -> {
+                    if (e == null) {
+                        log.debug("User info from Auth0: {}", userInfo);
+                        observation.lowCardinalityKeyValue("outcome", "SUCCESS");
+                    } else {
+                        observation.lowCardinalityKeyValue("outcome", "FAILURE");
+                        observation.error(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    }
+                    observation.stop();
+                });
     }
 
     @Override
@@ -51,4 +83,17 @@ public class DefaultIdPUserManagementAdapter implements IdPUserManagementAdapter
                 .flatMap(roleId -> this.managementAPIAdapter.assignRoleToUser(userId, roleId));
     }
 
+    private <T> CompletableFuture<T> call(String name, String userId, Supplier<Try<T>> request) {
+        return CompletableFuture.supplyAsync(() -> request.get().get(), this.executor)
+                .orTimeout(this.requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        String message = "Auth0 %s lookup of user %s timed out after %s".formatted(name, userId, this.requestTimeout);
+                        return CompletableFuture.failedFuture(new IdentityProviderException(message, cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
 }
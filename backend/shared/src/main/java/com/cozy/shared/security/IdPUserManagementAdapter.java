@@ -6,6 +6,8 @@ package com.cozy.shared.security;
 
 import io.vavr.control.Try;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IdPUserManagementAdapter {
     /**
      * Get user profile info from Auth0
@@ -15,6 +17,17 @@ public interface IdPUserManagementAdapter {
      */
     Try<UserInfo> getUserInfo(String userId);
 
+    /**
+     * Get user profile info from Auth0 without blocking the caller.
+     * Adapters that do not have a non-blocking path resolve the user on the calling thread.
+     *
+     * @param userId id of the user
+     * @return future completed with the user profile, or exceptionally with the reason it could not be resolved
+     */
+    default CompletableFuture<UserInfo> getUserInfoAsync(String userId) {
+        return this.getUserInfo(userId).fold(CompletableFuture::failedFuture, CompletableFuture::completedFuture);
+    }
+
     /**
      * Assign the given role to the user.
      *
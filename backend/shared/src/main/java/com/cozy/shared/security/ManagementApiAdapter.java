@@ -5,303 +5,246 @@ import com.auth0.client.mgmt.ManagementAPI;
 import com.auth0.client.mgmt.filter.PageFilter;
 import com.auth0.client.mgmt.filter.RolesFilter;
 import com.auth0.client.mgmt.filter.UserFilter;
+import com.auth0.exception.APIException;
 import com.auth0.exception.Auth0Exception;
-import com.auth0.json.auth.TokenHolder;
 import com.auth0.json.mgmt.permissions.Permission;
 import com.auth0.json.mgmt.roles.Role;
-import com.auth0.json.mgmt.users.User;
 import com.auth0.json.mgmt.users.UsersPage;
-import com.auth0.net.Request;
 import com.auth0.net.Response;
-import com.auth0.net.TokenRequest;
-import io.vavr.API;
+import com.auth0.net.client.Auth0HttpClient;
+import com.auth0.net.client.DefaultHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import io.vavr.CheckedFunction0;
+import io.vavr.CheckedFunction1;
 import io.vavr.control.Try;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.*;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Every call to Auth0, token requests and retries included, is timed under {@value #REQUESTS_METRIC} and tagged with
+ * the {@code endpoint} and the response {@code status}, or the exception type when there was no response.
+ */
 @Slf4j
+@Observed(name = "auth0.management")
 public class ManagementApiAdapter {
+    public static final String REQUESTS_METRIC = "auth0.requests";
+    private static final int ROLES_PAGE_SIZE = 100;
     private final Auth0Properties auth0Properties;
-    private AuthAPI auth0Api;
-    private ManagementAPI auth0ManagementApi;
-
-    public ManagementApiAdapter(final Auth0Properties auth0Properties) {
+    private final MeterRegistry meterRegistry;
+    private final RoleCatalogue roleCatalogue;
+    private final Auth0TokenManager tokenManager;
+    /**
+     * Shared by every client below, its connection pool and dispatcher live as long as the adapter.
+     */
+    private final Auth0HttpClient httpClient = DefaultHttpClient.newBuilder().build();
+    private volatile AuthAPI auth0Api;
+    private volatile AuthorizedApi managementApi;
+
+    public ManagementApiAdapter(final Auth0Properties auth0Properties, final MeterRegistry meterRegistry) {
         this.auth0Properties = auth0Properties;
-        this.auth0Api = null;
-        this.auth0ManagementApi = null;
+        this.meterRegistry = meterRegistry;
+        this.roleCatalogue = new RoleCatalogue(this::listAllRoles, auth0Properties.getRoleCatalogue());
+        this.tokenManager = new Auth0TokenManager(
+                () -> this.timed("oauth.token", () -> this.authApi().requestToken(auth0Properties.getRequestTokenUri()).execute()).getBody(),
+                auth0Properties.getTokenRenewalMargin()
+        );
     }
 
     public Try<UserInfo> getUserInfo(String userId) {
-        this.init();
-        return this.runWithRefreshToken(
-                        Try.of(() -> this.auth0ManagementApi.users().get(userId, new UserFilter()).execute())
-                                .map(Response::getBody)
-                )
+        return this.runWithRefreshToken("users.get", api -> api.users().get(userId, new UserFilter()).execute())
+                .map(Response::getBody)
                 .map(Auth0PayloadMapper.INSTANCE::map);
     }
 
     public Try<Set<String>> findPermissionsByRoleId(String roleId) {
-        this.init();
-        return this.runWithRefreshToken(
-                        Try.of(() -> this.auth0ManagementApi.roles().listPermissions(roleId, new PageFilter()).execute())
-                                .map(response -> response.getBody().getItems())
-                                .map(response -> response.stream().map(Permission::getName).collect(Collectors.toSet()))
-                )
+        return this.runWithRefreshToken("roles.permissions", api -> api.roles().listPermissions(roleId, new PageFilter()).execute())
+                .map(response -> response.getBody().getItems())
+                .map(response -> response.stream().map(Permission::getName).collect(Collectors.toSet()))
                 .onFailure(Exception.class, e -> log.error("Error getting permissions from Auth0 with roleId: {}", roleId, e))
                 .onFailure(Exception.class, e -> log.debug("", e))
                 .recoverWith(Auth0Exception.class, e -> Try.failure(new IdentityProviderException(e.getMessage(), e)));
     }
 
 
+    /**
+     * Resolve a role by its name, ignoring the case, from the in-process role catalogue.
+     * Auth0 is only queried when the catalogue is stale or does not know the role yet.
+     */
     public Try<Role> findRoleByName(String role) {
-        this.init();
-        return this.runWithRefreshToken(
-                        Try.of(() -> this.auth0ManagementApi.roles().list(new RolesFilter()).execute())
-                                .map(response -> response
-                                        .getBody()
-                                        .getItems()
-                                        .stream()
-                                        .filter(auth0Role -> filterRoleByEquality(auth0Role, role))
-                                        .findFirst()
-                                )
-                )
-                .onFailure(Exception.class, e -> log.error("Error getting role with name: {}", role))
+        return this.roleCatalogue.findByName(role)
+                .onFailure(Exception.class, e -> log.error("Error getting role with name: {}", role));
+    }
+
+    private Try<List<Role>> listAllRoles() {
+        return this.runWithRefreshToken("roles.list", api -> {
+                    List<Role> roles = new ArrayList<>();
+                    List<Role> page;
+                    int pageNumber = 0;
+                    do {
+                        RolesFilter filter = new RolesFilter().withPage(pageNumber++, ROLES_PAGE_SIZE);
+                        page = api.roles().list(filter).execute().getBody().getItems();
+                        roles.addAll(page);
+                    } while (page.size() == ROLES_PAGE_SIZE);
+                    return roles;
+                })
                 .onFailure(Exception.class, e -> log.debug("", e))
-                .recoverWith(Auth0Exception.class, e -> Try.failure(new IdentityProviderException(e.getMessage(), e)))
-                .map(optionalRole -> optionalRole.orElseThrow(() -> new EntityNotFoundException("Auth0 Role not found")))
-                ;
+                .recoverWith(Auth0Exception.class, e -> Try.failure(new IdentityProviderException(e.getMessage(), e)));
     }
 
     public Try<Set<Role>> findAllRoleByUserId(String userId) {
-        return this.runWithRefreshToken(
-                        Try.of(() -> this.auth0ManagementApi.users().listRoles(userId, new PageFilter()).execute())
-                                .map(response -> response.getBody().getItems())
-                                .map(Set::copyOf)
-                )
+        return this.runWithRefreshToken("users.roles", api -> api.users().listRoles(userId, new PageFilter()).execute())
+                .map(response -> response.getBody().getItems())
+                .map(Set::copyOf)
                 .onFailure(Exception.class, e -> log.error("Error getting roles from Auth0 with userId: {}", userId))
                 .onFailure(Exception.class, e -> log.debug("", e))
                 .recoverWith(Auth0Exception.class, e -> Try.failure(new IdentityProviderException(e.getMessage(), e)));
     }
 
     public Try<Void> assignRoleToUser(String userId, String roleId) {
-        return this.runWithRefreshToken(
-                Try.of(() -> this.auth0ManagementApi.users().addRoles(userId, List.of(roleId)))
-                        .flatMap(request -> Try.of(() -> request.execute().getStatusCode()))
-                        .map(HttpStatus::valueOf)
-                        .filter(HttpStatus::is2xxSuccessful, () -> new IdentityProviderException("Error assigning role"))
-                        .onSuccess(status -> log.info("Role with Id {} assigned to user {}", roleId, userId))
-                        .onFailure(e -> log.error("Error assigning role with Id {} to user {}. Status code.", roleId, userId))
-                        .onFailure(e -> log.debug("", e))
-                        .flatMap(v -> Try.run(() -> {
-                        }))
-        );
-    }
-
-    @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public Try<Integer> migrateUsersRole(String fromRole, String toRole, boolean force) {
-        return this.runWithRefreshToken(
-                Try.of(() -> {
-                            Try<Role> roleToAssign = this.findRoleByName(toRole)
-                                    .recoverWith(EntityNotFoundException.class, e -> {
-                                        if (force) {
-                                            return this.createRole(toRole);
-                                        }
-                                        return Try.failure(e);
-                                    });
-
-                            Try<Role> roleToChange = this.findRoleByName(fromRole);
-
-                            return API.For(roleToChange, roleToAssign)
-                                    .yield((oldRole, newRole) -> {
-                                        PageFilter filter = getIntialPageFilter();
-                                        UsersPage responsePage = this.findRoleUsers(oldRole, filter);
-                                        List<User> batch = responsePage.getItems();
-                                        List<User> processedUsers = new ArrayList<>();
-                                        do {
-                                            this.assignRoleToUsers(newRole, batch, processedUsers);
-                                            if (Objects.nonNull(responsePage.getNext())) {
-                                                log.info("Assigning next page of users");
-                                                responsePage = this.findRoleUsers(oldRole, new PageFilter().withFrom(responsePage.getNext()));
-                                                batch = responsePage.getItems();
-                                            } else {
-                                                batch = Collections.emptyList();
-                                            }
-                                        } while (!batch.isEmpty());
-                                        return processedUsers.size();
-                                    });
-                        })
-                        .map(Try::get)
-        );
-    }
-
-    @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public Try<Integer> removeUsersRole(String roleName, boolean force) {
-        return this.runWithRefreshToken(
-                this.findRoleByName(roleName)
-                        .map(role -> {
-                            PageFilter filter = getIntialPageFilter();
-                            UsersPage responsePage = this.findRoleUsers(role, filter);
-                            List<User> batch = responsePage.getItems();
-                            List<User> processedUsers = new ArrayList<>();
-                            do {
-                                this.removeUsersRole(role, batch, processedUsers);
-                                if (Objects.nonNull(responsePage.getNext())) {
-                                    log.info("Removing the next page of users");
-                                    responsePage = this.findRoleUsers(role, new PageFilter().withFrom(responsePage.getNext()));
-                                    batch = responsePage.getItems();
-                                } else {
-                                    batch = Collections.emptyList();
-                                }
-
-                            } while (!batch.isEmpty());
-                            return processedUsers.size();
-                        })
-        );
-    }
-
-    private PageFilter getIntialPageFilter() {
-        PageFilter filter = new PageFilter();
-        filter.withPage(0, 50);
-        return filter;
+        return this.runWithRefreshToken("users.addRoles", api -> api.users().addRoles(userId, List.of(roleId)).execute().getStatusCode())
+                .map(HttpStatus::valueOf)
+                .filter(HttpStatus::is2xxSuccessful, () -> new IdentityProviderException("Error assigning role"))
+                .onSuccess(status -> log.info("Role with Id {} assigned to user {}", roleId, userId))
+                .onFailure(e -> log.error("Error assigning role with Id {} to user {}. Status code.", roleId, userId))
+                .onFailure(e -> log.debug("", e))
+                .flatMap(v -> Try.run(() -> {
+                }));
     }
 
-    private UsersPage findRoleUsers(Role role, PageFilter filter) {
-        return Try.of(() -> this.auth0ManagementApi.roles().listUsers(role.getId(), filter))
-                .mapTry(Request::execute)
-                .map(response -> {
-                    if (!HttpStatus.valueOf(response.getStatusCode()).is2xxSuccessful()) {
-                        throw new IdentityProviderException("Error getting users with role: %s. Failed with status code %s".formatted(role, response.getStatusCode()));
-                    }
-                    return response.getBody();
-                })
-                .get();
+    /**
+     * One page of the users holding the given role, paginated with Auth0 checkpoints so that the page is stable
+     * while the role is being removed from the users already visited.
+     *
+     * @param from checkpoint returned as {@code next} by the previous page, {@code null} for the first page
+     */
+    Try<Response<UsersPage>> listUsersOfRole(String roleId, String from, int take) {
+        return this.runWithRefreshToken("roles.users", api -> {
+            PageFilter filter = new PageFilter().withTake(take);
+            if (Objects.nonNull(from)) {
+                filter.withFrom(from);
+            }
+            return api.roles().listUsers(roleId, filter).execute();
+        });
     }
 
-    private void assignRoleToUsers(Role role, List<User> users, List<User> processedUsers) {
-        int waitTimeBetweenRequests = 1000;
-        users.forEach(u ->
-                // Hack to avoid getting 429 from Auth0
-                this.waitFor(() -> this.assignRoleToUser(u.getId(), role.getId()), waitTimeBetweenRequests)
-                        .map(_d -> processedUsers.add(u))
-                        .recoverWith(assignmentError -> {
-                            log.error("Error assigning role to user: {}", u.getId(), assignmentError);
-                            log.warn("Rolling back changes for user: {}", u.getId());
-                            processedUsers.forEach(updatedUser ->
-                                    this.waitFor(() -> this.assignRoleToUser(updatedUser.getId(), role.getId()), waitTimeBetweenRequests)
-                                            .onFailure(rollbackError -> log.error("Error rolling back changes for user: {}", updatedUser.getId()))
-                                            .onFailure(rollbackError -> log.debug("", rollbackError))
-                                            .get()
-                            );
-                            throw new IdentityProviderException("Error assigning role to user: %s".formatted(u.getId()), assignmentError);
-                        })
-                        .get()
-        );
+    /**
+     * Assign the role to all the given users with a single request.
+     */
+    Try<Response<Void>> assignUsersToRole(String roleId, List<String> userIds) {
+        return this.runWithRefreshToken("roles.assignUsers", api -> api.roles().assignUsers(roleId, userIds).execute());
     }
 
-    private void removeUsersRole(Role role, List<User> users, List<User> processedUsers) {
-        int waitTimeBetweenRequests = 1000;
-        users.forEach(u ->
-                // Hack to avoid getting 429 from Auth0
-                this.waitFor(() -> this.removeRoleFromUser(u.getId(), role.getId()), waitTimeBetweenRequests)
-                        .map(_d -> processedUsers.add(u))
-                        .recoverWith(assignmentError -> {
-                            log.error("Error removing role from user: {}", u.getId(), assignmentError);
-                            log.warn("Rolling back changes for user: {}", u.getId());
-                            processedUsers.forEach(updatedUser ->
-                                    this.waitFor(() -> this.assignRoleToUser(updatedUser.getId(), role.getId()), waitTimeBetweenRequests)
-                                            .onFailure(rollbackError -> log.error("Error rolling back changes for user: {}", updatedUser.getId()))
-                                            .onFailure(rollbackError -> log.debug("", rollbackError))
-                                            .get()
-                            );
-                            throw new IdentityProviderException("Error removing role from user: %s".formatted(u.getId()), assignmentError);
-                        })
-                        .get()
-        );
+    /**
+     * Auth0 has no multi-user endpoint to revoke a role, it is revoked user per user.
+     */
+    Try<Response<Void>> removeRoleFromUser(String userId, String roleId) {
+        return this.runWithRefreshToken("users.removeRoles", api -> api.users().removeRoles(userId, Collections.singletonList(roleId)).execute());
     }
 
-    private Try<Void> removeRoleFromUser(String userId, String roleId) {
-        return Try.of(() -> this.auth0ManagementApi.users().removeRoles(userId, Collections.singletonList(roleId)))
-                .flatMap(request -> Try.of(() -> request.execute().getStatusCode()))
-                .map(HttpStatus::valueOf)
-                .filter(HttpStatus::is2xxSuccessful, () -> new IdentityProviderException("Error removing role"))
-                .onSuccess(status -> log.info("Role with Id {} removed from user {}", roleId, userId))
-                .onFailure(e -> log.error("Error removing role with Id {} from user {}. Status code.", roleId, userId))
-                .onFailure(e -> log.debug("", e))
-                .flatMap(v -> Try.run(() -> {
-                }));
+    Try<Role> findOrCreateRole(String name) {
+        return this.findRoleByName(name)
+                .recoverWith(EntityNotFoundException.class, e -> this.createRole(name));
     }
 
     private Try<Role> createRole(String toRole) {
-        return Try.of(() -> {
+        return this.runWithRefreshToken("roles.create", api -> {
                     Role newRole = new Role();
                     newRole.setName(toRole);
                     newRole.setDescription("This role was created by the system when migrating users roles. Provide a description");
-                    return this.auth0ManagementApi.roles().create(newRole);
+                    return api.roles().create(newRole).execute();
                 })
-                .mapTry(request -> request.execute())
                 .map(response -> {
                     if (!HttpStatus.valueOf(response.getStatusCode()).is2xxSuccessful()) {
                         throw new IdentityProviderException("Role creation failed with status code: " + response.getStatusCode());
                     }
                     return response.getBody();
-                });
-    }
-
-    private boolean filterRoleByEquality(Role auth0Role, String role) {
-        return auth0Role.getName().equalsIgnoreCase(role);
-    }
-
-    public <T> Try<T> runWithRefreshToken(Try<T> operation) {
-        return operation
-                .recoverWith(Auth0Exception.class, e -> {
-                            this.refreshApiToken();
-                            return operation;
-                        }
+                })
+                .andThen(this.roleCatalogue::put);
+    }
+
+    /**
+     * Run the operation with a valid access token. The operation is only run again, with a new token, when Auth0
+     * rejected the token it was given.
+     *
+     * @param endpoint name of the called endpoint in the metrics
+     */
+    public <T> Try<T> runWithRefreshToken(String endpoint, CheckedFunction1<ManagementAPI, T> operation) {
+        return Try.of(this.tokenManager::getToken)
+                .flatMap(token -> Try.of(() -> this.timed(endpoint, () -> operation.apply(this.managementApi(token))))
+                        .recoverWith(APIException.class, e -> {
+                            if (e.getStatusCode() != HttpStatus.UNAUTHORIZED.value()) {
+                                return Try.failure(e);
+                            }
+                            log.warn("Auth0 rejected the management API token, retrying with a new one");
+                            return Try.of(() -> this.tokenManager.replace(token))
+                                    .mapTry(freshToken -> this.timed(endpoint, () -> operation.apply(this.managementApi(freshToken))));
+                        })
                 );
     }
 
-    private String getAuthToken(String requestTokenUri) {
+    private <T> T timed(String endpoint, CheckedFunction0<T> call) throws Throwable {
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        String status = "UNKNOWN";
         try {
-            TokenRequest tokenRequest = this.auth0Api.requestToken(requestTokenUri);
-            TokenHolder holder = tokenRequest.execute().getBody();
-            return holder.getAccessToken();
-        } catch (Auth0Exception e) {
-            throw new IllegalStateException(e);
+            T result = call.apply();
+            // The operations not returning the response itself only return once it was successful
+            status = result instanceof Response<?> response ? String.valueOf(response.getStatusCode()) : "2xx";
+            return result;
+        } catch (APIException e) {
+            status = String.valueOf(e.getStatusCode());
+            throw e;
+        } catch (Throwable e) {
+            status = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(REQUESTS_METRIC)
+                    .tag("endpoint", endpoint)
+                    .tag("status", status)
+                    .register(this.meterRegistry));
         }
     }
 
-    private Try<Void> refreshApiToken() {
-        return Try.success(this.getAuthToken(auth0Properties.getRequestTokenUri()))
-                .andThen(this.auth0ManagementApi::setApiToken)
-                .map(e -> null);
-    }
-
-    private void init() {
-        if (Objects.isNull(auth0Api) || Objects.isNull(auth0ManagementApi)) {
-            this.auth0Api = AuthAPI.newBuilder(
-                    auth0Properties.getDomain(),
-                    auth0Properties.getClientId(),
-                    auth0Properties.getClientSecret()
-            ).build();
-            String domain = auth0Properties.getDomain();
-            String accessToken = this.getAuthToken(auth0Properties.getRequestTokenUri());
-            this.auth0ManagementApi = ManagementAPI.newBuilder(domain, accessToken).build();
+    /**
+     * The client for the given token. The token of a client is never changed, calls in flight on other threads keep
+     * the token they were given, a renewed token gets a client of its own. The clients only hold the token, the HTTP
+     * client underneath is shared.
+     */
+    private ManagementAPI managementApi(String token) {
+        AuthorizedApi authorized = this.managementApi;
+        if (Objects.isNull(authorized) || !authorized.token().equals(token)) {
+            authorized = new AuthorizedApi(token, ManagementAPI.newBuilder(this.auth0Properties.getDomain(), token)
+                    .withHttpClient(this.httpClient)
+                    .build());
+            this.managementApi = authorized;
+        }
+        return authorized.api();
+    }
+
+    private AuthAPI authApi() {
+        AuthAPI api = this.auth0Api;
+        if (Objects.isNull(api)) {
+            synchronized (this) {
+                api = this.auth0Api;
+                if (Objects.isNull(api)) {
+                    api = AuthAPI.newBuilder(
+                            this.auth0Properties.getDomain(),
+                            this.auth0Properties.getClientId(),
+                            this.auth0Properties.getClientSecret()
+                    ).withHttpClient(this.httpClient).build();
+                    this.auth0Api = api;
+                }
+            }
         }
+        return api;
     }
 
-    private <T> T waitFor(Supplier<T> supplier, int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            log.error("Error waiting for operation", e);
-        }
-        return supplier.get();
+    private record AuthorizedApi(String token, ManagementAPI api) {
     }
 
 }
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import com.auth0.json.mgmt.roles.Role;
+import io.vavr.control.Try;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process index of the identity provider roles by name, looked up case-insensitively.
+ * <p>
+ * The whole catalogue is loaded at once and replaced when older than the configured time to live. A lookup for an
+ * unknown name reloads it as well, at most once per {@code missRefreshInterval}, so that roles created outside the
+ * application are picked up without letting typos hammer the identity provider.
+ */
+@Slf4j
+class RoleCatalogue {
+    private final Supplier<Try<List<Role>>> loader;
+    private final Duration timeToLive;
+    private final Duration missRefreshInterval;
+    private final Clock clock;
+    // Held while loading from the identity provider, a monitor would pin the virtual thread waiting on the response
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    RoleCatalogue(Supplier<Try<List<Role>>> loader, Auth0Properties.RoleCatalogueSettings properties) {
+        this(loader, properties, Clock.systemUTC());
+    }
+
+    RoleCatalogue(Supplier<Try<List<Role>>> loader, Auth0Properties.RoleCatalogueSettings properties, Clock clock) {
+        this.loader = loader;
+        this.timeToLive = properties.getTimeToLive();
+        this.missRefreshInterval = properties.getMissRefreshInterval();
+        this.clock = clock;
+    }
+
+    Try<Role> findByName(String name) {
+        Snapshot current = this.snapshot;
+        if (current.isOlderThan(this.timeToLive, this.clock.instant())) {
+            current = this.refresh(current, this.timeToLive);
+        }
+        Optional<Role> role = current.find(name);
+        if (role.isEmpty()) {
+            current = this.refresh(current, this.missRefreshInterval);
+            role = current.find(name);
+        }
+        return role
+                .map(Try::success)
+                .orElseGet(() -> Try.failure(new EntityNotFoundException("Auth0 Role not found")));
+    }
+
+    /**
+     * Registers a role created by the application itself, the next lookup does not need a reload to see it.
+     */
+    void put(Role role) {
+        this.lock.lock();
+        try {
+            this.snapshot = this.snapshot.with(role);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the catalogue unless another thread did it while this one was waiting for the lock, or the seen snapshot
+     * is younger than {@code maxAge}. A failed reload keeps serving the previous snapshot.
+     */
+    private Snapshot refresh(Snapshot seen, Duration maxAge) {
+        this.lock.lock();
+        try {
+            Snapshot current = this.snapshot;
+            Instant now = this.clock.instant();
+            if (current != seen || !current.isOlderThan(maxAge, now)) {
+                return current;
+            }
+            return this.loader.get()
+                    .map(roles -> Snapshot.of(roles, now))
+                    .onSuccess(loaded -> log.debug("Loaded {} roles from the identity provider", loaded.rolesByName().size()))
+                    .onSuccess(loaded -> this.snapshot = loaded)
+                    .onFailure(e -> log.error("Failed to load the identity provider roles. Reason: {}", e.getMessage()))
+                    .getOrElse(current);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private record Snapshot(Map<String, Role> rolesByName, Instant loadedAt) {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Instant.MIN);
+
+        static Snapshot of(List<Role> roles, Instant loadedAt) {
+            Map<String, Role> rolesByName = new HashMap<>();
+            roles.forEach(role -> rolesByName.put(key(role.getName()), role));
+            return new Snapshot(Map.copyOf(rolesByName), loadedAt);
+        }
+
+        Snapshot with(Role role) {
+            Map<String, Role> rolesByName = new HashMap<>(this.rolesByName);
+            rolesByName.put(key(role.getName()), role);
+            return new Snapshot(Map.copyOf(rolesByName), this.loadedAt);
+        }
+
+        Optional<Role> find(String name) {
+            return Optional.ofNullable(name).map(Snapshot::key).map(this.rolesByName::get);
+        }
+
+        boolean isOlderThan(Duration maxAge, Instant now) {
+            return this.loadedAt == Instant.MIN || this.loadedAt.plus(maxAge).isBefore(now);
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
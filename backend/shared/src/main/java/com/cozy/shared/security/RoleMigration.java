@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of a bulk role migration. It is persisted after every page of users, an interrupted migration resumes from
+ * the last {@link #checkpoint} instead of starting over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleMigration {
+    private UUID id;
+    private Operation operation;
+    /**
+     * Role whose users are migrated.
+     */
+    private String sourceRole;
+    /**
+     * Role assigned to the users of the source role, {@code null} when the source role is removed.
+     */
+    private String targetRole;
+    /**
+     * Create the target role when it does not exist yet.
+     */
+    private boolean force;
+    private Status status;
+    /**
+     * Auth0 checkpoint of the next page of users to process, {@code null} until the first page is done.
+     */
+    private String checkpoint;
+    private long processedUsers;
+    private long failedUsers;
+    private String lastError;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public enum Operation {
+        ASSIGN,
+        REMOVE
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static RoleMigration assign(String sourceRole, String targetRole, boolean force) {
+        return RoleMigration.create(Operation.ASSIGN, sourceRole, targetRole, force);
+    }
+
+    public static RoleMigration remove(String role) {
+        return RoleMigration.create(Operation.REMOVE, role, null, false);
+    }
+
+    private static RoleMigration create(Operation operation, String sourceRole, String targetRole, boolean force) {
+        Instant now = Instant.now();
+        return RoleMigration.builder()
+                .id(UUID.randomUUID())
+                .operation(operation)
+                .sourceRole(sourceRole)
+                .targetRole(targetRole)
+                .force(force)
+                .status(Status.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public boolean isDone() {
+        return this.status == Status.COMPLETED;
+    }
+}
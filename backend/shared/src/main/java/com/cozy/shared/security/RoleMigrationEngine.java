@@ -0,0 +1,212 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import com.auth0.exception.RateLimitException;
+import com.auth0.json.mgmt.roles.Role;
+import com.auth0.json.mgmt.users.User;
+import com.auth0.json.mgmt.users.UsersPage;
+import com.auth0.net.Response;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs bulk role migrations against Auth0.
+ * <ul>
+ *     <li>Users of the source role are read page by page. The migration state, including the Auth0 checkpoint of the
+ *     next page, is persisted after each page; running a migration again resumes where it stopped.</li>
+ *     <li>Role assignments go through the multi-user endpoint, one request per {@code usersPerRequest} users. Removals
+ *     have no such endpoint and are sent user per user.</li>
+ *     <li>At most {@code concurrency} requests are in flight, and every request waits for a token of the
+ *     {@link Auth0RateLimiter}.</li>
+ * </ul>
+ * A failed request does not abort the migration, its users are counted as failed and the error is recorded. Both
+ * operations are idempotent on Auth0, so a page replayed after a crash does no harm.
+ */
+@Slf4j
+public class RoleMigrationEngine {
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ManagementApiAdapter managementApiAdapter;
+    private final RoleMigrationRepository roleMigrationRepository;
+    private final Auth0Properties.RoleMigrationSettings settings;
+    private final Auth0RateLimiter rateLimiter;
+    private final Executor executor;
+    private final Semaphore inFlightRequests;
+
+    public RoleMigrationEngine(ManagementApiAdapter managementApiAdapter,
+                               RoleMigrationRepository roleMigrationRepository,
+                               Auth0Properties.RoleMigrationSettings settings,
+                               Executor executor) {
+        this.managementApiAdapter = managementApiAdapter;
+        this.roleMigrationRepository = roleMigrationRepository;
+        this.settings = settings;
+        this.rateLimiter = new Auth0RateLimiter(settings.getRequestsPerSecond(), settings.getBurst());
+        this.executor = executor;
+        this.inFlightRequests = new Semaphore(settings.getConcurrency());
+    }
+
+    /**
+     * Run the migration from its last checkpoint until every user of the source role has been processed.
+     *
+     * @param migrationId id of a stored migration
+     * @return the migration in its final state
+     */
+    public Try<RoleMigration> run(UUID migrationId) {
+        return this.roleMigrationRepository.findById(migrationId)
+                .flatMap(migration -> {
+                    if (migration.isDone()) {
+                        return Try.success(migration);
+                    }
+                    migration.setStatus(RoleMigration.Status.RUNNING);
+                    return this.save(migration)
+                            .flatMap(this::process)
+                            .recoverWith(e -> {
+                                log.error("Role migration {} stopped after {} users. Reason: {}", migrationId, migration.getProcessedUsers(), e.getMessage());
+                                migration.setStatus(RoleMigration.Status.FAILED);
+                                migration.setLastError(e.getMessage());
+                                return this.save(migration).flatMap(saved -> Try.failure(e));
+                            });
+                });
+    }
+
+    private Try<RoleMigration> process(RoleMigration migration) {
+        return Try.of(() -> {
+            Role source = this.managementApiAdapter.findRoleByName(migration.getSourceRole()).get();
+            Role target = switch (migration.getOperation()) {
+                case ASSIGN -> migration.isForce()
+                        ? this.managementApiAdapter.findOrCreateRole(migration.getTargetRole()).get()
+                        : this.managementApiAdapter.findRoleByName(migration.getTargetRole()).get();
+                case REMOVE -> null;
+            };
+
+            String checkpoint = migration.getCheckpoint();
+            List<User> users;
+            do {
+                String from = checkpoint;
+                UsersPage page = this.call(() -> this.managementApiAdapter.listUsersOfRole(source.getId(), from, this.settings.getPageSize()));
+                users = Objects.requireNonNullElse(page.getItems(), List.of());
+                List<String> userIds = users.stream().map(User::getId).toList();
+
+                long failed = switch (migration.getOperation()) {
+                    case ASSIGN -> this.assign(migration, target, userIds);
+                    case REMOVE -> this.remove(migration, source, userIds);
+                };
+
+                checkpoint = page.getNext();
+                migration.setCheckpoint(checkpoint);
+                migration.setProcessedUsers(migration.getProcessedUsers() + userIds.size() - failed);
+                migration.setFailedUsers(migration.getFailedUsers() + failed);
+                this.save(migration).get();
+                log.info("Role migration {}: {} users processed, {} failed", migration.getId(), migration.getProcessedUsers(), migration.getFailedUsers());
+            } while (Objects.nonNull(checkpoint) && !users.isEmpty());
+
+            migration.setStatus(RoleMigration.Status.COMPLETED);
+            return this.save(migration).get();
+        });
+    }
+
+    /**
+     * @return number of users the role could not be assigned to
+     */
+    private long assign(RoleMigration migration, Role target, List<String> userIds) {
+        List<CompletableFuture<BatchResult>> requests = new ArrayList<>();
+        for (int start = 0; start < userIds.size(); start += this.settings.getUsersPerRequest()) {
+            List<String> batch = userIds.subList(start, Math.min(userIds.size(), start + this.settings.getUsersPerRequest()));
+            requests.add(this.submit(migration, batch.size(), () -> this.managementApiAdapter.assignUsersToRole(target.getId(), batch)));
+        }
+        return join(migration, requests);
+    }
+
+    /**
+     * @return number of users the role could not be removed from
+     */
+    private long remove(RoleMigration migration, Role source, List<String> userIds) {
+        List<CompletableFuture<BatchResult>> requests = userIds.stream()
+                .map(userId -> this.submit(migration, 1, () -> this.managementApiAdapter.removeRoleFromUser(userId, source.getId())))
+                .toList();
+        return join(migration, requests);
+    }
+
+    /**
+     * The request runs on the executor and leaves the migration untouched, its outcome is applied by {@link #join}.
+     *
+     * @return future completed with the outcome of the request, all its users failed or none
+     */
+    private <T> CompletableFuture<BatchResult> submit(RoleMigration migration, int users, Supplier<Try<Response<T>>> request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                this.inFlightRequests.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new BatchResult(users, "Interrupted before the request was sent");
+            }
+            try {
+                return Try.of(() -> this.call(request))
+                        .onFailure(e -> log.error("Role migration {}: request for {} users failed. Reason: {}", migration.getId(), users, e.getMessage()))
+                        .map(v -> new BatchResult(0, null))
+                        .getOrElseGet(e -> new BatchResult(users, e.getMessage()));
+            } finally {
+                this.inFlightRequests.release();
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Send the request once a rate limit token is available, retrying when Auth0 still answers with a 429.
+     */
+    private <T> T call(Supplier<Try<Response<T>>> request) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            this.rateLimiter.acquire();
+            Try<Response<T>> response = request.get()
+                    .onSuccess(r -> this.rateLimiter.onResponse(r.getHeaders()));
+            if (response.isFailure() && response.getCause() instanceof RateLimitException e && attempt < MAX_ATTEMPTS) {
+                this.rateLimiter.onRateLimited(e);
+                continue;
+            }
+            Response<T> success = response.get();
+            if (!HttpStatus.valueOf(success.getStatusCode()).is2xxSuccessful()) {
+                throw new IdentityProviderException("Auth0 request failed with status code %s".formatted(success.getStatusCode()));
+            }
+            return success.getBody();
+        }
+    }
+
+    private Try<RoleMigration> save(RoleMigration migration) {
+        migration.setUpdatedAt(Instant.now());
+        return this.roleMigrationRepository.save(migration);
+    }
+
+    /**
+     * Wait for the requests of a page and record the error of the last failed one, on the thread running the migration.
+     *
+     * @return number of failed users
+     */
+    private static long join(RoleMigration migration, List<CompletableFuture<BatchResult>> requests) {
+        long failed = 0;
+        for (CompletableFuture<BatchResult> request : requests) {
+            BatchResult result = request.join();
+            failed += result.failedUsers();
+            if (Objects.nonNull(result.error())) {
+                migration.setLastError(result.error());
+            }
+        }
+        return failed;
+    }
+
+    private record BatchResult(long failedUsers, String error) {
+    }
+}
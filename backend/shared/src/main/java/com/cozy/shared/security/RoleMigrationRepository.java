@@ -0,0 +1,26 @@
+/*
+ *  Copyright (c) Dntech 2023 - All rights reserved.
+ */
+
+package com.cozy.shared.security;
+
+import io.vavr.control.Try;
+
+import java.util.UUID;
+
+public interface RoleMigrationRepository {
+
+    /**
+     * Insert the migration or overwrite its stored state.
+     *
+     * @param migration migration to store
+     * @return the stored migration
+     */
+    Try<RoleMigration> save(RoleMigration migration);
+
+    /**
+     * @param id id of the migration
+     * @return the migration, or a failure with {@link jakarta.persistence.EntityNotFoundException} if unknown
+     */
+    Try<RoleMigration> findById(UUID id);
+}
@@ -0,0 +1,59 @@
+package com.cozy.shared.db;
+
+import io.vavr.control.Try;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+    private final List<Set<Integer>> batches = new ArrayList<>();
+    private final BatchLoader<Integer, String> loader = new BatchLoader<>(
+            keys -> {
+                this.batches.add(Set.copyOf(keys));
+                return Try.success(keys.stream().filter(key -> key % 10 != 0).map(String::valueOf).toList());
+            },
+            Integer::valueOf,
+            3
+    );
+
+    @Test
+    void testKeysAreLoadedInChunksAndReturnedInOrder() {
+        Map<Integer, String> values = this.loader.loadMany(List.of(5, 4, 3, 2, 1)).get();
+
+        assertEquals(List.of(5, 4, 3, 2, 1), List.copyOf(values.keySet()));
+        assertEquals(List.of(Set.of(5, 4, 3), Set.of(2, 1)), this.batches);
+    }
+
+    @Test
+    void testKeysAreResolvedOnlyOnce() {
+        this.loader.loadMany(List.of(1, 2, 10)).get();
+        Map<Integer, String> values = this.loader.loadMany(List.of(2, 2, 10, 11)).get();
+
+        assertEquals(Map.of(2, "2", 11, "11"), values);
+        assertEquals(List.of(Set.of(1, 2, 10), Set.of(11)), this.batches);
+    }
+
+    @Test
+    void testFailedChunkStaysQueued() {
+        List<Set<Integer>> calls = new ArrayList<>();
+        BatchLoader<Integer, String> failingOnce = new BatchLoader<>(
+                keys -> {
+                    calls.add(Set.copyOf(keys));
+                    return calls.size() == 2
+                            ? Try.failure(new IllegalStateException("boom"))
+                            : Try.success(keys.stream().map(String::valueOf).toList());
+                },
+                Integer::valueOf,
+                2
+        );
+
+        assertTrue(failingOnce.loadMany(List.of(1, 2, 3, 4)).isFailure());
+        assertEquals(Map.of(3, "3", 4, "4"), failingOnce.loadMany(List.of(3, 4)).get());
+        assertEquals(List.of(Set.of(1, 2), Set.of(3, 4), Set.of(3, 4)), calls);
+    }
+}
@@ -0,0 +1,52 @@
+package com.cozy.shared.db;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageRequestTest {
+
+    @Test
+    void testCursorRoundTrip() {
+        ZonedDateTime createdAt = ZonedDateTime.of(2024, 3, 1, 10, 15, 30, 123456000, ZoneId.of("Europe/Berlin"));
+        CursorPageRequest.Cursor cursor = new CursorPageRequest.Cursor(createdAt, 42L);
+
+        CursorPageRequest.Cursor decoded = CursorPageRequest.Cursor.decode(cursor.encode());
+
+        assertEquals(createdAt.toInstant(), decoded.createdAt().toInstant());
+        assertEquals(42L, decoded.id());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%%%", "bm8tc2VwYXJhdG9y", "bm90LWEtZGF0ZXw0Mg", "MjAyNC0wMy0wMVQwOToxNTozMFp8YWJj"})
+    void testMalformedCursorIsRejected(String token) {
+        assertThrows(InvalidCursorException.class, () -> CursorPageRequest.of(token, 10));
+    }
+
+    @Test
+    void testMissingCursorRequestsFirstPage() {
+        CursorPageRequest pageRequest = CursorPageRequest.of(null, null);
+
+        assertTrue(pageRequest.cursor().isEmpty());
+        assertEquals(CursorPageRequest.DEFAULT_LIMIT, pageRequest.getLimit());
+    }
+
+    @Test
+    void testPageKeepsOnlyRequestedRows() {
+        CursorPage<Integer> page = CursorPage.of(List.of(1, 2, 3), 2, i -> new CursorPageRequest.Cursor(ZonedDateTime.now(), i.longValue()));
+
+        assertTrue(page.isHasNext());
+        assertEquals(List.of(1, 2), page.getData());
+        assertEquals(2L, CursorPageRequest.Cursor.decode(page.getNextCursor()).id());
+
+        CursorPage<Integer> lastPage = CursorPage.of(List.of(1, 2), 2, i -> new CursorPageRequest.Cursor(ZonedDateTime.now(), i.longValue()));
+        assertFalse(lastPage.isHasNext());
+        assertNull(lastPage.getNextCursor());
+    }
+}
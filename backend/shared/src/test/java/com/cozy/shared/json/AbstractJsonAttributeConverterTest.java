@@ -0,0 +1,44 @@
+package com.cozy.shared.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractJsonAttributeConverterTest {
+
+    static class SchedulesConverter extends AbstractJsonAttributeConverter<Map<String, List<ZonedDateTime>>> {
+    }
+
+    @SuppressWarnings("rawtypes")
+    static class RawConverter extends AbstractJsonAttributeConverter {
+    }
+
+    @Test
+    void testGenericAttributeTypeIsCaptured() {
+        SchedulesConverter converter = new SchedulesConverter();
+        ZonedDateTime start = ZonedDateTime.parse("2024-03-01T10:15:30Z");
+
+        Map<String, List<ZonedDateTime>> schedules = converter.convertToEntityAttribute(
+                converter.convertToDatabaseColumn(Map.of("checkIn", List.of(start))));
+
+        ZonedDateTime checkIn = schedules.get("checkIn").get(0);
+        assertEquals(start.toInstant(), checkIn.toInstant());
+    }
+
+    @Test
+    void testEmptyColumnIsNull() {
+        SchedulesConverter converter = new SchedulesConverter();
+
+        assertNull(converter.convertToEntityAttribute(null));
+        assertNull(converter.convertToEntityAttribute(""));
+    }
+
+    @Test
+    void testUnboundAttributeTypeIsRejected() {
+        assertThrows(IllegalStateException.class, RawConverter::new);
+    }
+}
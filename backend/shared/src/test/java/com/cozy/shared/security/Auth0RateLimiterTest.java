@@ -0,0 +1,50 @@
+package com.cozy.shared.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Auth0RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstThenConfiguredRate() {
+        Auth0RateLimiter limiter = new Auth0RateLimiter(2, 3);
+        long now = System.nanoTime();
+
+        assertEquals(0, limiter.tryAcquire(now));
+        assertEquals(0, limiter.tryAcquire(now));
+        assertEquals(0, limiter.tryAcquire(now));
+
+        long wait = limiter.tryAcquire(now);
+        assertTrue(wait > 0 && wait <= SECOND / 2, "next token is half a second away, got " + wait);
+        assertEquals(0, limiter.tryAcquire(now + SECOND / 2));
+    }
+
+    @Test
+    void testEmptyBucketReportedByAuth0BlocksUntilReset() {
+        Auth0RateLimiter limiter = new Auth0RateLimiter(10, 10);
+        long now = System.nanoTime();
+        long nowMillis = 1_700_000_000_000L;
+
+        limiter.synchronize(10, 0, nowMillis / 1000 + 5, now, nowMillis);
+
+        long wait = limiter.tryAcquire(now);
+        assertEquals(5 * SECOND, wait);
+        assertTrue(limiter.tryAcquire(now + 4 * SECOND) > 0);
+    }
+
+    @Test
+    void testRemainingReportedByAuth0CapsTokens() {
+        Auth0RateLimiter limiter = new Auth0RateLimiter(1, 10);
+        long now = System.nanoTime();
+        long nowMillis = 1_700_000_000_000L;
+
+        limiter.synchronize(10, 1, nowMillis / 1000 + 60, now, nowMillis);
+
+        assertEquals(0, limiter.tryAcquire(now));
+        assertTrue(limiter.tryAcquire(now) > 0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.cozy.shared.security;
+
+import com.auth0.json.auth.TokenHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Auth0TokenManagerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long EXPIRES_IN = 3600;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void testConcurrentCallersShareOneRequest() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        Auth0TokenManager manager = new Auth0TokenManager(() -> {
+            released.await();
+            return this.nextToken();
+        }, Duration.ZERO, this.clock);
+
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        List<Future<?>> callers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                callers.add(executor.submit(() -> {
+                    try {
+                        tokens.add(manager.getToken());
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+            }
+            // Let every caller reach the lock before the single request completes
+            TimeUnit.MILLISECONDS.sleep(100);
+            released.countDown();
+            for (Future<?> caller : callers) {
+                caller.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(Set.of("token-1"), tokens);
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    void testTokenIsReusedUntilExpired() throws Throwable {
+        Auth0TokenManager manager = new Auth0TokenManager(this::nextToken, Duration.ZERO, this.clock);
+
+        assertEquals("token-1", manager.getToken());
+        this.clock.advance(Duration.ofSeconds(EXPIRES_IN - 1));
+        assertEquals("token-1", manager.getToken());
+        this.clock.advance(Duration.ofSeconds(1));
+        assertEquals("token-2", manager.getToken());
+
+        assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    void testTokenInRenewalMarginIsServedWhileRenewed() throws Throwable {
+        CountDownLatch renewed = new CountDownLatch(1);
+        Auth0TokenManager manager = new Auth0TokenManager(() -> {
+            TokenHolder token = this.nextToken();
+            if (this.requests.get() == 2) {
+                renewed.countDown();
+            }
+            return token;
+        }, Duration.ofMinutes(5), this.clock);
+
+        assertEquals("token-1", manager.getToken());
+        this.clock.advance(Duration.ofSeconds(EXPIRES_IN).minusMinutes(1));
+
+        assertEquals("token-1", manager.getToken());
+        assertTrue(renewed.await(5, TimeUnit.SECONDS));
+        // The renewal stores the token right after the request returned
+        Instant deadline = Instant.now().plusSeconds(5);
+        while (!"token-2".equals(manager.getToken()) && Instant.now().isBefore(deadline)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals("token-2", manager.getToken());
+        assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    void testRejectedTokenIsReplaced() throws Throwable {
+        Auth0TokenManager manager = new Auth0TokenManager(this::nextToken, Duration.ZERO, this.clock);
+
+        String rejected = manager.getToken();
+
+        assertEquals("token-2", manager.replace(rejected));
+        assertEquals("token-2", manager.getToken());
+        assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    void testTokenAlreadyReplacedByAnotherCallerIsReused() throws Throwable {
+        Auth0TokenManager manager = new Auth0TokenManager(this::nextToken, Duration.ZERO, this.clock);
+        String rejected = manager.getToken();
+        manager.replace(rejected);
+
+        // A second caller rejected with the same token gets the replacement, no new request
+        assertEquals("token-2", manager.replace(rejected));
+        assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    void testFailedRequestIsRetriedOnNextCall() throws Throwable {
+        AtomicInteger calls = new AtomicInteger();
+        Auth0TokenManager manager = new Auth0TokenManager(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Auth0 unavailable");
+            }
+            return this.nextToken();
+        }, Duration.ZERO, this.clock);
+
+        assertThrows(IllegalStateException.class, manager::getToken);
+        assertEquals("token-1", manager.getToken());
+    }
+
+    private TokenHolder nextToken() throws Exception {
+        String json = """
+                {"access_token": "token-%s", "token_type": "Bearer", "expires_in": %s}
+                """.formatted(this.requests.incrementAndGet(), EXPIRES_IN);
+        return MAPPER.readValue(json, TokenHolder.class);
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cozy.shared.security;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the adapter against a local HTTP server standing in for Auth0, which rejects the first token it hands out.
+ */
+class ManagementApiAdapterTest {
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private ManagementApiAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/oauth/token", exchange -> respond(exchange, 200, """
+                {"access_token": "token-%s", "token_type": "Bearer", "expires_in": 86400}
+                """.formatted(this.tokenRequests.incrementAndGet())));
+        this.server.createContext("/api/v2/users/", exchange -> {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            this.authorizations.add(authorization);
+            if ("Bearer token-1".equals(authorization)) {
+                respond(exchange, 401, """
+                        {"statusCode": 401, "error": "Unauthorized", "message": "Expired token"}
+                        """);
+            } else {
+                respond(exchange, 200, """
+                        {"user_id": "auth0|1", "email": "john.doe@cozy.com", "email_verified": true}
+                        """);
+            }
+        });
+        this.server.start();
+
+        Auth0Properties properties = new Auth0Properties();
+        properties.setDomain("http://localhost:%s".formatted(this.server.getAddress().getPort()));
+        properties.setClientId("client");
+        properties.setClientSecret("secret");
+        this.adapter = new ManagementApiAdapter(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop(0);
+    }
+
+    @Test
+    void testRejectedTokenIsReplacedAndCallRetriedOnce() {
+        UserInfo user = this.adapter.getUserInfo("auth0|1").get();
+
+        assertEquals("auth0|1", user.getSub());
+        assertEquals(2, this.tokenRequests.get());
+        assertEquals(List.of("Bearer token-1", "Bearer token-2"), this.authorizations);
+    }
+
+    @Test
+    void testReplacedTokenIsUsedByTheFollowingCalls() {
+        this.adapter.getUserInfo("auth0|1").get();
+        this.adapter.getUserInfo("auth0|1").get();
+
+        assertEquals(2, this.tokenRequests.get());
+        assertEquals(List.of("Bearer token-1", "Bearer token-2", "Bearer token-2"), this.authorizations);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cozy.shared.security;
+
+import com.auth0.json.mgmt.roles.Role;
+import io.vavr.control.Try;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleCatalogueTest {
+    private final List<Role> roles = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final MutableClock clock = new MutableClock();
+    private RoleCatalogue catalogue;
+
+    @BeforeEach
+    void setUp() {
+        this.roles.add(role("1", "Guest"));
+        this.roles.add(role("2", "Host"));
+        Auth0Properties.RoleCatalogueSettings settings = new Auth0Properties.RoleCatalogueSettings(Duration.ofMinutes(10), Duration.ofSeconds(30));
+        this.catalogue = new RoleCatalogue(() -> {
+            this.loads.incrementAndGet();
+            return Try.success(List.copyOf(this.roles));
+        }, settings, this.clock);
+    }
+
+    @Test
+    void testLookupIsCaseInsensitiveAndLoadsOnce() {
+        assertEquals("1", this.catalogue.findByName("guest").get().getDescription());
+        assertEquals("2", this.catalogue.findByName("HOST").get().getDescription());
+        assertEquals("1", this.catalogue.findByName("Guest").get().getDescription());
+
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    void testCatalogueIsReloadedOnceStale() {
+        this.catalogue.findByName("guest");
+        this.clock.advance(Duration.ofMinutes(11));
+
+        this.catalogue.findByName("guest");
+
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    void testMissReloadsAtMostOncePerInterval() {
+        this.catalogue.findByName("guest");
+        this.clock.advance(Duration.ofSeconds(31));
+        this.roles.add(role("3", "Admin"));
+
+        assertEquals("3", this.catalogue.findByName("admin").get().getDescription());
+        assertEquals(2, this.loads.get());
+
+        Try<Role> unknown = this.catalogue.findByName("unknown");
+        assertTrue(unknown.isFailure());
+        assertInstanceOf(EntityNotFoundException.class, unknown.getCause());
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    void testPutRoleIsVisibleWithoutReload() {
+        this.catalogue.findByName("guest");
+
+        this.catalogue.put(role("4", "Superhost"));
+
+        assertEquals("4", this.catalogue.findByName("superhost").get().getDescription());
+        assertEquals(1, this.loads.get());
+    }
+
+    private static Role role(String description, String name) {
+        Role role = new Role();
+        role.setName(name);
+        role.setDescription(description);
+        return role;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.cozy;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 public class ServiceModuleTestConfig {
 
     @Bean
-    public DbResetService dbResetService(JdbcTemplate jdbcTemplate) {
-        return new DbResetService(jdbcTemplate);
+    public DbResetService dbResetService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        return new DbResetService(jdbcTemplate, entityManagerFactory);
     }
 
 }